@@ -0,0 +1,58 @@
+package com.example.factionslite;
+
+import com.example.factionslite.FactionsLite.ChunkPos;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Deterministic synthetic data at production scale. Faction i is "faction<i>" in world
+ * "f_faction<i>" with its home somewhere within 2000 blocks of spawn. Claims are dealt out
+ * round-robin and laid out as a 16-wide strip around the home chunk; players are dealt out
+ * round-robin as members (the first one is the owner).
+ */
+final class Dataset {
+    final StoredData data;
+    final List<FactionRecord> factions;
+    final List<UUID> players;
+
+    private Dataset(List<FactionRecord> factions, Map<UUID, String> players, List<UUID> playerIds) {
+        this.data = new StoredData(factions, players);
+        this.factions = factions;
+        this.players = playerIds;
+    }
+
+    static Dataset generate(int factionCount, int claimCount, int playerCount, long seed) {
+        Random rnd = new Random(seed);
+        List<UUID> playerIds = new ArrayList<>(playerCount);
+        Map<UUID, String> players = new HashMap<>(playerCount * 2);
+        List<List<UUID>> members = new ArrayList<>(factionCount);
+        for (int i = 0; i < factionCount; i++) members.add(new ArrayList<>());
+        for (int j = 0; j < playerCount; j++) {
+            UUID id = new UUID(rnd.nextLong(), rnd.nextLong());
+            playerIds.add(id);
+            members.get(j % factionCount).add(id);
+            players.put(id, "faction" + j % factionCount);
+        }
+        long now = System.currentTimeMillis();
+        List<FactionRecord> factions = new ArrayList<>(factionCount);
+        for (int i = 0; i < factionCount; i++) {
+            String name = "faction" + i, world = "f_" + name;
+            int hx = rnd.nextInt(4000) - 2000, hz = rnd.nextInt(4000) - 2000;
+            int claims = claimCount / factionCount + (i < claimCount % factionCount ? 1 : 0);
+            List<ChunkPos> cps = new ArrayList<>(claims);
+            for (int n = 0; n < claims; n++) cps.add(new ChunkPos(world, (hx >> 4) + n % 16 - 8, (hz >> 4) + n / 16 - 8));
+            List<UUID> m = members.get(i);
+            UUID owner = m.isEmpty() ? new UUID(rnd.nextLong(), rnd.nextLong()) : m.get(0);
+            factions.add(new FactionRecord(name, "T" + i, world, owner, m, new FactionRecord.Home(world, hx + 0.5, 64, hz + 0.5, 0f, 0f), cps,
+                    rnd.nextInt(4), rnd.nextInt(4), rnd.nextInt(4), now - (2 + rnd.nextInt(60)) * 86_400_000L, 0L, 0L));
+        }
+        return new Dataset(factions, players, playerIds);
+    }
+
+    /** Writes the dataset in storage's format to its file in dir. */
+    void write(Storage storage, File dir) throws IOException {
+        DataStore.writeAtomically(new File(dir, storage.fileName()), storage.encode(data));
+    }
+}
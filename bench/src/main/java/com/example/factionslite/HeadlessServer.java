@@ -0,0 +1,230 @@
+package com.example.factionslite;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.Registry;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.java.JavaPluginLoader;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.logging.ConsoleHandler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bukkit stand-ins for running FactionsLite without a server.
+ * <p>
+ * Server, World, Chunk and Player are dynamic proxies that answer a fixed set of getters by
+ * method name and return null / 0 / false / an empty list for everything else. Answers are
+ * stored pre-boxed, so calling a stand-in getter allocates nothing and the gc profiler only
+ * sees the plugin's own allocation. The server is installed once per JVM (Bukkit.setServer
+ * cannot be undone); worlds registered through {@link #world(String)} are what
+ * {@code Bukkit.getWorlds()} returns, players added to {@link #online()} are the online players.
+ * Events are not dispatched: callers invoke the listener methods themselves. The scheduler is
+ * left unset; {@link LoadSimulation} installs its own through {@link #answer}.
+ */
+final class HeadlessServer {
+    /** A computed answer, for methods whose result depends on the arguments. */
+    interface Answer { Object answer(Object[] args); }
+
+    private static final List<World> worlds = new ArrayList<>();
+    private static final Map<String, World> worldsByName = new HashMap<>();
+    private static final Map<UUID, World> worldsById = new HashMap<>();
+    private static final Map<World, List<Player>> worldPlayers = new HashMap<>();
+    private static final List<Player> online = new ArrayList<>();
+    private static final Map<String, Object> serverAnswers = new HashMap<>();
+    private static final Map<Class<?>, Registry<?>> registries = new HashMap<>();
+    private static Server server;
+    private static JavaPluginLoader loader;
+
+    private HeadlessServer() {}
+
+    @SuppressWarnings("deprecation") // JavaPluginLoader(Server) is the only way to build a loader outside a server
+    static synchronized Server install() {
+        if (server != null) return server;
+        Logger log = Logger.getLogger("FactionsLite-headless");
+        log.setUseParentHandlers(false);
+        ConsoleHandler console = new ConsoleHandler();
+        console.setLevel(Level.WARNING);
+        log.addHandler(console);
+        Map<String, Object> answers = serverAnswers;
+        answers.put("getLogger", log);
+        answers.put("getName", "Headless");
+        answers.put("getVersion", "headless");
+        answers.put("getBukkitVersion", "1.21.1-R0.1-SNAPSHOT");
+        answers.put("getWorlds", Collections.unmodifiableList(worlds));
+        answers.put("getOnlinePlayers", Collections.unmodifiableList(online));
+        answers.put("getPluginManager", stub(PluginManager.class, new HashMap<>(Map.of("disablePlugin", (Answer) args -> {
+            throw new IllegalStateException("plugin disabled itself, see the log");
+        }))));
+        answers.put("getItemFactory", itemFactory());
+        answers.put("getRegistry", (Answer) args -> registries.computeIfAbsent((Class<?>) args[0], HeadlessServer::registry));
+        answers.put("createInventory", (Answer) args -> inventory((InventoryHolder) args[0], args[1] instanceof Integer size ? size : 27, InventoryType.CHEST));
+        answers.put("getWorld", (Answer) args -> args[0] instanceof String n ? worldsByName.get(n.toLowerCase()) : worldsById.get((UUID) args[0]));
+        answers.put("getWorldContainer", new File(System.getProperty("java.io.tmpdir")));
+        server = stub(Server.class, answers);
+        Bukkit.setServer(server);
+        loader = new JavaPluginLoader(server);
+        return server;
+    }
+
+    /** Replaces or adds a server method answer (e.g. getScheduler); call after {@link #install()}. */
+    static void answer(String method, Object value) { serverAnswers.put(method, value); }
+
+    /** Mutable list of online players (what getOnlinePlayers() returns). */
+    static List<Player> online() { return online; }
+
+    /** Mutable list of the players in w (what w.getPlayers() returns). */
+    static List<Player> playersIn(World w) { return worldPlayers.computeIfAbsent(w, k -> new ArrayList<>()); }
+
+    /** A FactionsLite on dataFolder with the config defaults and the given backend; nothing is loaded yet (call loadData()). */
+    static FactionsLite plugin(File dataFolder, String backend) {
+        install();
+        FactionsLite plugin = new FactionsLite(loader, new PluginDescriptionFile("FactionsLite", "1.2.0", FactionsLite.class.getName()),
+                dataFolder, new File(dataFolder, "FactionsLite.jar"));
+        plugin.addConfigDefaults();
+        plugin.getConfig().set("storage.backend", backend);
+        plugin.readSettings();
+        return plugin;
+    }
+
+    /** A loaded world named name, spawn at 0.5/64/0.5, no players. */
+    static World world(String name) {
+        Map<String, Object> answers = new HashMap<>();
+        World w = stub(World.class, answers);
+        answers.put("getName", name);
+        answers.put("getUID", UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8)));
+        answers.put("getSpawnLocation", (Answer) args -> new Location(w, 0.5, 64, 0.5));
+        answers.put("getEnvironment", World.Environment.NORMAL);
+        answers.put("getPlayers", Collections.unmodifiableList(playersIn(w)));
+        answers.put("getChunkAt", (Answer) args -> args[0] instanceof Integer x ? chunk(w, x, (Integer) args[1]) : null);
+        // every chunk is loaded, and every position is one shared stone block: deferred raid blocks
+        // are checked for their type and then broken, which the stand-in ignores
+        answers.put("isChunkLoaded", true);
+        answers.put("getBlockAt", block(w, 0, 64, 0, Material.STONE));
+        worlds.add(w);
+        worldsByName.put(name.toLowerCase(), w);
+        worldsById.put(w.getUID(), w);
+        return w;
+    }
+
+    /** Forgets all registered worlds (between datasets). */
+    static void clearWorlds() { worlds.clear(); worldsByName.clear(); worldsById.clear(); worldPlayers.clear(); online.clear(); }
+
+    static Chunk chunk(World w, int x, int z) {
+        Map<String, Object> answers = new HashMap<>();
+        answers.put("getWorld", w);
+        answers.put("getX", x);
+        answers.put("getZ", z);
+        answers.put("isLoaded", true);
+        return stub(Chunk.class, answers);
+    }
+
+    /** A block of the given type; its location and chunk are built once, here. */
+    static Block block(World w, int x, int y, int z, Material type) {
+        Map<String, Object> answers = new HashMap<>();
+        answers.put("getWorld", w);
+        answers.put("getX", x);
+        answers.put("getY", y);
+        answers.put("getZ", z);
+        answers.put("getType", type);
+        answers.put("getLocation", new Location(w, x, y, z));
+        answers.put("getChunk", chunk(w, x >> 4, z >> 4));
+        return stub(Block.class, answers);
+    }
+
+    /** A player standing at loc; getLocation() returns loc itself, so callers must not mutate it. */
+    static Player player(UUID id, String name, Location loc) { return player(id, name, () -> loc); }
+
+    /** A player whose position is read from where on every call (for players that move). */
+    static Player player(UUID id, String name, Supplier<Location> where) {
+        Map<String, Object> answers = new HashMap<>();
+        answers.put("getUniqueId", id);
+        answers.put("getName", name);
+        answers.put("getLocation", (Answer) args -> where.get());
+        answers.put("getWorld", (Answer) args -> where.get().getWorld());
+        answers.put("isOnline", true);
+        answers.put("getHealth", 20.0);
+        return stub(Player.class, answers);
+    }
+
+    static Inventory inventory(InventoryHolder holder, int size, InventoryType type) {
+        Map<String, Object> answers = new HashMap<>();
+        if (holder != null) answers.put("getHolder", holder);
+        answers.put("getSize", size);
+        answers.put("getType", type);
+        return stub(Inventory.class, answers);
+    }
+
+    // registry-backed constants (PotionEffectType.SPEED, ...) resolve through these; the entries are abstract
+    // classes, so they are Mockito mocks, built once per key and never called on a hot path
+    private static Registry<?> registry(Class<?> type) {
+        Map<Object, Object> entries = new HashMap<>();
+        Map<String, Object> answers = new HashMap<>();
+        answers.put("get", (Answer) args -> entries.computeIfAbsent(args[0], k -> Mockito.mock(type)));
+        return stub(Registry.class, answers);
+    }
+
+    // ItemStack.setItemMeta()/getItemMeta() go through the factory; metas are inert stand-ins
+    private static ItemFactory itemFactory() {
+        Map<String, Object> answers = new HashMap<>();
+        answers.put("getItemMeta", (Answer) args -> itemMeta());
+        answers.put("isApplicable", true);
+        answers.put("asMetaFor", (Answer) args -> args[0]);
+        answers.put("updateMaterial", (Answer) args -> args[1]);
+        return stub(ItemFactory.class, answers);
+    }
+
+    private static ItemMeta itemMeta() {
+        Map<String, Object> answers = new HashMap<>();
+        ItemMeta meta = stub(ItemMeta.class, answers);
+        answers.put("clone", meta);
+        answers.put("getDisplayName", "");
+        return meta;
+    }
+
+    /** A proxy of type answering from answers (values or {@link Answer}s), everything else with the return type's default. */
+    static <T> T stub(Class<T> type, Map<String, Object> answers) {
+        T proxy = type.cast(Proxy.newProxyInstance(HeadlessServer.class.getClassLoader(), new Class<?>[]{type}, (self, m, args) -> {
+            String name = m.getName();
+            if (name.equals("equals") && args != null && args.length == 1) return self == args[0];
+            Object v = answers.get(name);
+            if (v instanceof Answer a) return a.answer(args);
+            if (v != null) return v;
+            if (name.equals("toString")) return type.getSimpleName() + "[" + answers.get("getName") + "]";
+            return defaultFor(m.getReturnType());
+        }));
+        answers.put("hashCode", System.identityHashCode(proxy)); // boxed once, not per call
+        return proxy;
+    }
+
+    private static Object defaultFor(Class<?> t) {
+        if (!t.isPrimitive()) return t == List.class || t == Collection.class ? List.of() : t == Set.class ? Set.of() : null;
+        if (t == boolean.class) return false;
+        if (t == int.class) return 0;
+        if (t == long.class) return 0L;
+        if (t == double.class) return 0.0;
+        if (t == float.class) return 0f;
+        if (t == short.class) return (short) 0;
+        if (t == byte.class) return (byte) 0;
+        if (t == char.class) return '\0';
+        return null; // void
+    }
+}
@@ -0,0 +1,293 @@
+package com.example.factionslite;
+
+import com.example.factionslite.FactionsLite.Faction;
+import org.bukkit.ExplosionResult;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.TNTPrimed;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Headless whole-server load test: runs the real plugin (onEnable, listeners, scheduled tasks)
+ * against {@link HeadlessServer} stand-ins and a synthetic workload, and reports plugin time
+ * and allocation per tick plus the cost of each handler and task.
+ * <p>
+ * Usage: {@code java -cp bench/target/benchmarks.jar com.example.factionslite.LoadSimulation [scenario.properties]};
+ * see bench/scenarios for the keys and their defaults. Each tick: every player moves (and
+ * sometimes breaks or places a block), each raid sets off TNT in its target's base, upgrade-GUI
+ * and foreign-inventory clicks arrive, and due scheduler tasks run. Only the plugin calls are
+ * timed, not building the events. Raid, shield and defend ends follow the wall clock, which a
+ * simulation outruns, so raids started at setup stay active for the whole run. Exits with
+ * status 1 if the p99 tick is over {@code budget-ms}.
+ */
+public final class LoadSimulation {
+    record Scenario(long seed, int factions, int players, int claimsPerFaction, int ticks, int warmupTicks,
+                    double movesPerPlayerTick, double blocksPerPlayerTick, int raids, int raidersPerRaid,
+                    int tntPerRaidTick, int blocksPerExplosion, int guiClicksPerTick, int foreignClicksPerTick,
+                    int saveEveryTicks, double budgetMs) {
+        static Scenario load(Properties p) {
+            return new Scenario(Long.parseLong(p.getProperty("seed", "1")),
+                    Integer.parseInt(p.getProperty("factions", "40")), Integer.parseInt(p.getProperty("players", "200")),
+                    Integer.parseInt(p.getProperty("claims-per-faction", "50")),
+                    Integer.parseInt(p.getProperty("ticks", "2400")), Integer.parseInt(p.getProperty("warmup-ticks", "400")),
+                    Double.parseDouble(p.getProperty("moves-per-player-tick", "1.0")),
+                    Double.parseDouble(p.getProperty("blocks-per-player-tick", "0.05")),
+                    Integer.parseInt(p.getProperty("raids", "10")), Integer.parseInt(p.getProperty("raiders-per-raid", "5")),
+                    Integer.parseInt(p.getProperty("tnt-per-raid-tick", "2")), Integer.parseInt(p.getProperty("blocks-per-explosion", "40")),
+                    Integer.parseInt(p.getProperty("gui-clicks-per-tick", "5")), Integer.parseInt(p.getProperty("foreign-clicks-per-tick", "50")),
+                    Integer.parseInt(p.getProperty("save-every-ticks", "1200")), Double.parseDouble(p.getProperty("budget-ms", "5.0")));
+        }
+    }
+
+    /** Calls, time and allocation of one handler or task, over the measured ticks. */
+    private static final class Cost { long calls, nanos, bytes; }
+
+    private static final class SimPlayer {
+        Player handle;
+        Location loc;
+        Location anchor;   // wanders within radius of this point
+        int radius;
+        Faction raiding;   // target faction, or null for a member at home
+    }
+
+    private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final Scenario sc;
+    private final Random rnd;
+    private final SimScheduler scheduler = new SimScheduler();
+    private final Map<String, Cost> costs = new TreeMap<>();
+    private final List<SimPlayer> players = new ArrayList<>();
+    private final List<Faction> raided = new ArrayList<>();
+    private final Command fCommand = new Command("f") {
+        @Override public boolean execute(CommandSender sender, String label, String[] args) { return false; }
+    };
+    private FactionsLite plugin;
+    private File dir;
+    private boolean measuring;
+    private long tickNanos, tickBytes;
+    private int baseHalf, ringMid;
+
+    private LoadSimulation(Scenario sc) { this.sc = sc; this.rnd = new Random(sc.seed()); }
+
+    public static void main(String[] args) throws IOException {
+        Properties props = new Properties();
+        if (args.length > 0) try (Reader r = new FileReader(args[0])) { props.load(r); }
+        Scenario sc = Scenario.load(props);
+        LoadSimulation sim = new LoadSimulation(sc);
+        boolean ok;
+        try {
+            sim.setUp();
+            ok = sim.run();
+        } finally {
+            sim.tearDown();
+        }
+        System.exit(ok ? 0 : 1);
+    }
+
+    private void setUp() throws IOException {
+        dir = Files.createTempDirectory("factionslite-sim").toFile();
+        Dataset ds = Dataset.generate(sc.factions(), sc.factions() * sc.claimsPerFaction(), sc.players(), sc.seed());
+        ds.write(new BinaryStorage(), dir);
+        Files.writeString(new File(dir, "config.yml").toPath(), ""); // saveDefaultConfig() has no bundled config.yml to copy
+
+        HeadlessServer.install();
+        HeadlessServer.answer("getScheduler", scheduler.facade());
+        HeadlessServer.answer("getWorldContainer", dir);
+        HeadlessServer.clearWorlds();
+        HeadlessServer.world("world");
+        List<World> factionWorlds = new ArrayList<>();
+        for (FactionRecord r : ds.factions) factionWorlds.add(HeadlessServer.world(r.world()));
+        plugin = HeadlessServer.plugin(dir, "binary");
+        plugin.getConfig().set("worlds.pool.size", 0);              // no world generation in a simulation
+        plugin.getConfig().set("perf.export-interval-seconds", 0);
+        plugin.onEnable();
+        baseHalf = plugin.getConfig().getInt("faction.base.size") / 2;
+        ringMid = baseHalf + plugin.getConfig().getInt("faction.base.buffer") / 2;
+
+        // members stay around their home; the raiders of each raid stand in the target's siege ring
+        for (int i = 0; i < sc.players(); i++) {
+            SimPlayer sp = new SimPlayer();
+            UUID id = ds.players.get(i);
+            sp.handle = HeadlessServer.player(id, "player" + i, () -> sp.loc);
+            Faction own = plugin.getPlayerFaction(sp.handle);
+            int raid = i / Math.max(1, sc.raidersPerRaid());
+            if (raid < sc.raids() && raid < sc.factions()) {
+                Faction target = plugin.getFactionByWorld(factionWorlds.get(raid));
+                if (target != own) sp.raiding = target;
+            }
+            Faction home = sp.raiding != null ? sp.raiding : own;
+            Location c = home.baseCenter();
+            sp.anchor = sp.raiding != null ? c.clone().add(ringMid, 0, 0) : c;
+            sp.radius = sp.raiding != null ? 4 : baseHalf / 2;
+            sp.loc = sp.anchor.clone();
+            players.add(sp);
+            HeadlessServer.online().add(sp.handle);
+            HeadlessServer.playersIn(c.getWorld()).add(sp.handle);
+            plugin.onJoin(new PlayerJoinEvent(sp.handle, ""));
+        }
+        for (SimPlayer sp : players) {
+            if (sp.raiding == null || raided.contains(sp.raiding)) continue;
+            plugin.onCommand(sp.handle, fCommand, "f", new String[]{"raid", sp.raiding.name});
+            if (sp.raiding.raidActive) raided.add(sp.raiding);
+        }
+        for (SimPlayer sp : players) if (sp.raiding == null) plugin.onCommand(sp.handle, fCommand, "f", new String[]{"upgrades"});
+        System.out.printf("%d factions, %d players, %d claims, %d raids active%n", sc.factions(), sc.players(),
+                sc.factions() * sc.claimsPerFaction(), raided.size());
+    }
+
+    private boolean run() {
+        long[] ticks = new long[sc.ticks()];
+        long[] bytes = new long[sc.ticks()];
+        for (int t = -sc.warmupTicks(); t < sc.ticks(); t++) {
+            measuring = t >= 0;
+            tickNanos = tickBytes = 0;
+            tick(t);
+            if (measuring) { ticks[t] = tickNanos; bytes[t] = tickBytes; }
+        }
+        return report(ticks, bytes);
+    }
+
+    private void tick(int t) {
+        for (SimPlayer sp : players) {
+            for (double m = sc.movesPerPlayerTick(); m > 0; m--) if (m >= 1 || rnd.nextDouble() < m) move(sp);
+            if (rnd.nextDouble() < sc.blocksPerPlayerTick()) buildOrBreak(sp);
+        }
+        for (Faction f : raided) for (int n = 0; n < sc.tntPerRaidTick(); n++) explode(f);
+        for (int n = 0; n < sc.guiClicksPerTick(); n++) guiClick();
+        for (int n = 0; n < sc.foreignClicksPerTick(); n++) foreignClick();
+        if (sc.saveEveryTicks() > 0 && t % sc.saveEveryTicks() == 0) timed("DataStore.flush", plugin.store::flush);
+        scheduler.tick(this::timed);
+    }
+
+    private void move(SimPlayer sp) {
+        Location from = sp.loc;
+        double dx = rnd.nextDouble() * 0.6 - 0.3, dz = rnd.nextDouble() * 0.6 - 0.3;
+        if (Math.abs(from.getX() + dx - sp.anchor.getX()) > sp.radius) dx = -dx;
+        if (Math.abs(from.getZ() + dz - sp.anchor.getZ()) > sp.radius) dz = -dz;
+        PlayerMoveEvent e = new PlayerMoveEvent(sp.handle, from, from.clone().add(dx, 0, dz));
+        timed("onPlayerMove", () -> plugin.onPlayerMove(e));
+        if (!e.isCancelled() && e.getTo() != null) sp.loc = e.getTo();
+    }
+
+    private void buildOrBreak(SimPlayer sp) {
+        World w = sp.loc.getWorld();
+        int x = sp.loc.getBlockX() + rnd.nextInt(7) - 3, z = sp.loc.getBlockZ() + rnd.nextInt(7) - 3;
+        if (sp.raiding != null || rnd.nextBoolean()) {
+            Material type = sp.raiding != null ? Material.TNT : Material.STONE;
+            Block placed = HeadlessServer.block(w, x, 64, z, type);
+            BlockPlaceEvent e = new BlockPlaceEvent(placed, null, HeadlessServer.block(w, x, 63, z, Material.STONE),
+                    new ItemStack(type), sp.handle, true, EquipmentSlot.HAND);
+            timed("onBlockPlace", () -> plugin.onBlockPlace(e));
+        } else {
+            BlockBreakEvent e = new BlockBreakEvent(HeadlessServer.block(w, x, 64, z, Material.STONE), sp.handle);
+            timed("onBlockBreak", () -> plugin.onBlockBreak(e));
+        }
+    }
+
+    private void explode(Faction f) {
+        Location c = f.baseCenter();
+        int cx = c.getBlockX() + rnd.nextInt(2 * baseHalf + 1) - baseHalf, cz = c.getBlockZ() + rnd.nextInt(2 * baseHalf + 1) - baseHalf;
+        List<Block> blocks = new ArrayList<>(sc.blocksPerExplosion());
+        for (int n = 0; n < sc.blocksPerExplosion(); n++)
+            blocks.add(HeadlessServer.block(c.getWorld(), cx + rnd.nextInt(7) - 3, 60 + rnd.nextInt(7), cz + rnd.nextInt(7) - 3, Material.STONE));
+        Location at = new Location(c.getWorld(), cx, 63, cz);
+        Entity tnt = HeadlessServer.stub(TNTPrimed.class, new HashMap<>(Map.of("getType", EntityType.PRIMED_TNT, "getLocation", at, "getWorld", c.getWorld())));
+        EntityExplodeEvent e = new EntityExplodeEvent(tnt, at, blocks, 0.3f, ExplosionResult.DESTROY);
+        timed("onExplode", () -> plugin.onExplode(e));
+    }
+
+    private void guiClick() {
+        SimPlayer sp = players.get(rnd.nextInt(players.size()));
+        Faction f = plugin.getPlayerFaction(sp.handle);
+        if (sp.raiding != null || f == null || f.upgradeGui == null) return;
+        Inventory top = f.upgradeGui.getInventory();
+        click(sp.handle, top, UpgradeGui.Upgrade.values()[rnd.nextInt(3)].slot, "onInventoryClick (upgrade GUI)");
+    }
+
+    // hoppers, chests and other plugins' menus: must fall through the GUI check
+    private void foreignClick() {
+        SimPlayer sp = players.get(rnd.nextInt(players.size()));
+        Inventory top = HeadlessServer.inventory(null, rnd.nextBoolean() ? 5 : 27, rnd.nextBoolean() ? InventoryType.HOPPER : InventoryType.CHEST);
+        click(sp.handle, top, rnd.nextInt(top.getSize()), "onInventoryClick (other)");
+    }
+
+    private void click(Player p, Inventory top, int slot, String name) {
+        Inventory bottom = HeadlessServer.inventory(null, 41, InventoryType.PLAYER);
+        Map<String, Object> answers = new HashMap<>();
+        answers.put("getTopInventory", top);
+        answers.put("getBottomInventory", bottom);
+        answers.put("getPlayer", p);
+        answers.put("getTitle", "");
+        answers.put("convertSlot", (HeadlessServer.Answer) args -> args[0]);
+        answers.put("getInventory", (HeadlessServer.Answer) args -> (Integer) args[0] < top.getSize() ? top : bottom);
+        InventoryView view = HeadlessServer.stub(InventoryView.class, answers);
+        InventoryClickEvent e = new InventoryClickEvent(view, InventoryType.SlotType.CONTAINER, slot, ClickType.LEFT, InventoryAction.PICKUP_ALL);
+        timed(name, () -> plugin.onInventoryClick(e));
+    }
+
+    private void timed(String name, Runnable call) {
+        long b0 = THREADS.getCurrentThreadAllocatedBytes();
+        long t0 = System.nanoTime();
+        call.run();
+        long dt = System.nanoTime() - t0, db = THREADS.getCurrentThreadAllocatedBytes() - b0;
+        if (!measuring) return;
+        tickNanos += dt;
+        tickBytes += db;
+        Cost c = costs.computeIfAbsent(name, k -> new Cost());
+        c.calls++; c.nanos += dt; c.bytes += db;
+    }
+
+    private boolean report(long[] ticks, long[] bytes) {
+        int n = ticks.length;
+        long[] sorted = ticks.clone();
+        Arrays.sort(sorted);
+        double mean = Arrays.stream(ticks).average().orElse(0) / 1e6;
+        double p99 = sorted[Math.min(n - 1, (int) Math.ceil(n * 0.99) - 1)] / 1e6;
+        System.out.printf("%nPlugin time per tick over %d ticks: mean %.3f ms, p50 %.3f ms, p99 %.3f ms, max %.3f ms%n",
+                n, mean, sorted[n / 2] / 1e6, p99, sorted[n - 1] / 1e6);
+        System.out.printf("Allocation per tick: mean %.1f KB%n%n", Arrays.stream(bytes).average().orElse(0) / 1024);
+        System.out.printf("%-36s %10s %12s %12s %12s%n", "handler / task", "calls", "mean us", "ms/tick", "bytes/call");
+        for (var e : costs.entrySet()) {
+            Cost c = e.getValue();
+            System.out.printf("%-36s %10d %12.2f %12.3f %12d%n", e.getKey(), c.calls, c.nanos / 1e3 / c.calls, c.nanos / 1e6 / n, c.bytes / c.calls);
+        }
+        boolean ok = p99 <= sc.budgetMs();
+        System.out.printf("%n%s: p99 %.3f ms against a budget of %.3f ms per tick%n", ok ? "PASS" : "FAIL", p99, sc.budgetMs());
+        return ok;
+    }
+
+    private void tearDown() {
+        if (plugin != null) plugin.onDisable();
+        scheduler.shutdown();
+        File[] files = dir == null ? null : dir.listFiles();
+        if (files != null) for (File f : files) f.delete();
+        if (dir != null) dir.delete();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.factionslite;
+
+import com.example.factionslite.FactionsLite.Faction;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-event lookups: claim owner by chunk, faction by world, base / siege-ring checks and
+ * player to faction. Each call takes the next of {@link #PROBES} precomputed inputs, a mix of
+ * hits and misses (unclaimed chunks, the main world, factionless players, points outside the
+ * base), so branch prediction cannot learn a single answer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LookupBenchmark {
+    private static final int PROBES = 4096; // power of two, see next()
+
+    @Param({"1000", "10000", "50000"})
+    int factions;
+    @Param("100000")
+    int claims;
+    @Param("20000")
+    int players;
+
+    private File dir;
+    private FactionsLite plugin;
+    private final Chunk[] chunks = new Chunk[PROBES];
+    private final World[] worlds = new World[PROBES];
+    private final Faction[] baseOwners = new Faction[PROBES];
+    private final Location[] locations = new Location[PROBES];
+    private final Player[] probePlayers = new Player[PROBES];
+    private int i;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Dataset ds = Dataset.generate(factions, claims, players, 42L);
+        dir = Files.createTempDirectory("factionslite-bench").toFile();
+        ds.write(new BinaryStorage(), dir);
+        HeadlessServer.clearWorlds();
+        World main = HeadlessServer.world("world");
+        World[] factionWorlds = new World[factions];
+        for (int f = 0; f < factions; f++) factionWorlds[f] = HeadlessServer.world(ds.factions.get(f).world());
+        plugin = HeadlessServer.plugin(dir, "binary");
+        if (!plugin.loadData()) throw new IllegalStateException("could not load the generated dataset");
+
+        Random rnd = new Random(7L);
+        int reach = plugin.getConfig().getInt("faction.base.size") / 2 + plugin.getConfig().getInt("faction.base.buffer") + 16;
+        for (int p = 0; p < PROBES; p++) {
+            int f = rnd.nextInt(factions);
+            FactionRecord r = ds.factions.get(f);
+            World w = factionWorlds[f];
+            if (r.claims().isEmpty() || rnd.nextBoolean()) chunks[p] = HeadlessServer.chunk(w, 10_000 + rnd.nextInt(1000), rnd.nextInt(1000));
+            else { var cp = r.claims().get(rnd.nextInt(r.claims().size())); chunks[p] = HeadlessServer.chunk(w, cp.x, cp.z); }
+            worlds[p] = rnd.nextInt(10) == 0 ? main : w;
+            baseOwners[p] = plugin.getFactionByWorld(w);
+            locations[p] = new Location(w, r.home().x() + rnd.nextInt(2 * reach) - reach, 64, r.home().z() + rnd.nextInt(2 * reach) - reach);
+            UUID id = rnd.nextInt(10) == 0 ? new UUID(rnd.nextLong(), rnd.nextLong()) : ds.players.get(rnd.nextInt(ds.players.size()));
+            probePlayers[p] = HeadlessServer.player(id, "p" + p, locations[p]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (File f : Objects.requireNonNull(dir.listFiles())) f.delete();
+        dir.delete();
+    }
+
+    private int next() { return i = (i + 1) & (PROBES - 1); }
+
+    @Benchmark
+    public Faction getFactionAt() { return plugin.getFactionAt(chunks[next()]); }
+
+    @Benchmark
+    public Faction getFactionByWorld() { return plugin.getFactionByWorld(worlds[next()]); }
+
+    @Benchmark
+    public boolean insideBaseSquare() { int p = next(); return plugin.insideBaseSquare(baseOwners[p], locations[p]); }
+
+    @Benchmark
+    public boolean insideSiegeRing() { int p = next(); return plugin.insideSiegeRing(baseOwners[p], locations[p]); }
+
+    @Benchmark
+    public Faction getPlayerFaction() { return plugin.getPlayerFaction(probePlayers[next()]); }
+}
@@ -0,0 +1,66 @@
+package com.example.factionslite;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Save and load of the whole data file, per backend. save is a full synchronous save (every
+ * faction re-snapshotted, encoded and written through the temp-file rename), i.e. the worst case
+ * of a write-behind flush. load is loadData() into a fresh plugin: decoding plus rebuilding the
+ * claim index, world registry and bounds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenceBenchmark {
+    @Param({"binary", "yaml"})
+    String backend;
+    @Param({"1000", "10000", "50000"})
+    int factions;
+    @Param("100000")
+    int claims;
+    @Param("20000")
+    int players;
+
+    File dir;
+    private FactionsLite loaded;
+
+    /** A plugin that has not loaded yet, new for every load() call. */
+    @State(Scope.Thread)
+    public static class Fresh {
+        FactionsLite plugin;
+
+        @Setup(Level.Invocation)
+        public void create(PersistenceBenchmark b) { plugin = HeadlessServer.plugin(b.dir, b.backend); }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("factionslite-bench").toFile();
+        Storage storage = backend.equals("binary") ? new BinaryStorage() : new YamlStorage();
+        Dataset.generate(factions, claims, players, 42L).write(storage, dir);
+        HeadlessServer.clearWorlds();
+        loaded = HeadlessServer.plugin(dir, backend);
+        if (!loaded.loadData()) throw new IllegalStateException("could not load the generated dataset");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (File f : Objects.requireNonNull(dir.listFiles())) f.delete();
+        dir.delete();
+    }
+
+    @Benchmark
+    public void save() throws IOException { loaded.store.saveNow(); }
+
+    @Benchmark
+    public boolean load(Fresh fresh) { return fresh.plugin.loadData(); }
+}
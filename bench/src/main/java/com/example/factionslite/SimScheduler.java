@@ -0,0 +1,103 @@
+package com.example.factionslite;
+
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Tick-driven stand-in for the Bukkit scheduler. Sync tasks run from {@link #tick(TaskRunner)}
+ * in scheduling order once their delay is up (a delay below 1 means the next tick, as on a real
+ * server). Async tasks run at once on a single background thread.
+ */
+final class SimScheduler {
+    /** Runs one due task; lets the caller time it. */
+    interface TaskRunner { void run(String name, Runnable task); }
+
+    private final class Task {
+        final int id = nextId++;
+        final String name;
+        final Runnable body;
+        final long period;
+        long due;
+        boolean cancelled;
+        final BukkitTask handle;
+
+        Task(Object work, long delay, long period) {
+            this.name = nameOf(work);
+            this.period = period;
+            this.due = tick + Math.max(1L, delay);
+            Map<String, Object> answers = new HashMap<>();
+            answers.put("getTaskId", id);
+            answers.put("isSync", true);
+            answers.put("isCancelled", (HeadlessServer.Answer) args -> cancelled);
+            answers.put("cancel", (HeadlessServer.Answer) args -> { cancelled = true; return null; });
+            this.handle = HeadlessServer.stub(BukkitTask.class, answers);
+            this.body = bodyOf(work, handle);
+        }
+    }
+
+    private final List<Task> tasks = new ArrayList<>();
+    private final List<Task> due = new ArrayList<>();
+    private final ExecutorService async = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "sim-async"); t.setDaemon(true); return t;
+    });
+    private int nextId = 1;
+    private long tick;
+
+    /** The BukkitScheduler facade to install with {@code HeadlessServer.answer("getScheduler", ...)}. */
+    BukkitScheduler facade() {
+        Map<String, Object> answers = new HashMap<>();
+        answers.put("runTask", (HeadlessServer.Answer) args -> add(args[1], 0L, -1L));
+        answers.put("runTaskLater", (HeadlessServer.Answer) args -> add(args[1], (Long) args[2], -1L));
+        answers.put("runTaskTimer", (HeadlessServer.Answer) args -> add(args[1], (Long) args[2], (Long) args[3]));
+        answers.put("runTaskAsynchronously", (HeadlessServer.Answer) args -> { async.execute(bodyOf(args[1], null)); return null; });
+        answers.put("cancelTask", (HeadlessServer.Answer) args -> {
+            for (Task t : tasks) if (t.id == (Integer) args[0]) t.cancelled = true;
+            return null;
+        });
+        answers.put("isCurrentlyRunning", false);
+        return HeadlessServer.stub(BukkitScheduler.class, answers);
+    }
+
+    private BukkitTask add(Object work, long delay, long period) {
+        Task t = new Task(work, delay, period);
+        tasks.add(t);
+        return t.handle;
+    }
+
+    long currentTick() { return tick; }
+
+    /** Advances one tick and runs every sync task that is due, in scheduling order. */
+    void tick(TaskRunner runner) {
+        tick++;
+        due.clear();
+        for (Task t : tasks) if (!t.cancelled && t.due <= tick) due.add(t);
+        for (Task t : due) {
+            if (t.cancelled) continue;
+            runner.run(t.name, t.body);
+            if (t.period > 0) t.due = tick + t.period; else t.cancelled = true;
+        }
+        tasks.removeIf(t -> t.cancelled);
+    }
+
+    void shutdown() { async.shutdownNow(); }
+
+    @SuppressWarnings("unchecked")
+    private static Runnable bodyOf(Object work, BukkitTask handle) {
+        if (work instanceof Runnable r) return r;
+        if (work instanceof Consumer<?> c) return () -> ((Consumer<BukkitTask>) c).accept(handle);
+        throw new IllegalArgumentException("unsupported task " + work);
+    }
+
+    // "BuffManager" for runnables, "FactionsLite (lambda)" for lambdas and method references
+    private static String nameOf(Object work) {
+        String n = work.getClass().getName();
+        n = n.substring(n.lastIndexOf('.') + 1);
+        int lambda = n.indexOf("$$Lambda");
+        return lambda >= 0 ? n.substring(0, lambda) + " (lambda)" : n;
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.factionslite;
+
+import com.example.factionslite.FactionsLite.ChunkPos;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary data file (data.bin). Big-endian, layout:
+ * <pre>
+ * header   int MAGIC, int VERSION, int payloadLength, int payloadCrc32
+ * payload  strings:  int n, n x str                      (world names, player faction names)
+ *          factions: int n, n x faction
+ *          players:  int n, n x (long msb, long lsb, int stringIdx)
+ * faction  str name, str tag, int worldIdx (v2+), uuid? owner, int n, n x uuid members,
+ *          byte hasHome [int worldIdx, double x, y, z, float yaw, pitch],
+ *          int groups, groups x (int worldIdx, int n, n x long packedChunk),
+ *          int speed, damage, hearts, long createdAt, defendUntil, defendCooldownUntil
+ * str      int byteLength, UTF-8 bytes
+ * uuid?    byte present [long msb, long lsb]
+ * </pre>
+ * Claims are packed with {@link ClaimIndex#pack}. Bump VERSION on any layout change and keep
+ * reading the old versions.
+ */
+final class BinaryStorage implements Storage {
+    static final int MAGIC = 0x464C4442; // "FLDB"
+    static final int VERSION = 2; // 2: faction world name
+    private static final int HEADER_BYTES = 16;
+
+    @Override public String fileName() { return "data.bin"; }
+
+    @Override
+    public StoredData load(File file) throws IOException {
+        if (!file.exists()) return new StoredData(new ArrayList<>(), new HashMap<>());
+        ByteBuffer buf;
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) throw new IOException(file.getName() + ": bad size " + size);
+            buf = ByteBuffer.allocate((int) size);
+            while (buf.hasRemaining()) if (ch.read(buf) < 0) throw new EOFException(file.getName());
+            buf.flip();
+        }
+        if (buf.getInt() != MAGIC) throw new IOException(file.getName() + ": not a FactionsLite data file");
+        int version = buf.getInt();
+        if (version < 1 || version > VERSION) throw new IOException(file.getName() + ": unsupported version " + version);
+        int length = buf.getInt(), crc = buf.getInt();
+        if (length != buf.remaining()) throw new IOException(file.getName() + ": truncated (" + buf.remaining() + "/" + length + " bytes)");
+        CRC32 c = new CRC32(); c.update(buf.duplicate());
+        if ((int) c.getValue() != crc) throw new IOException(file.getName() + ": checksum mismatch");
+
+        try {
+            String[] strings = new String[buf.getInt()];
+            for (int i = 0; i < strings.length; i++) strings[i] = readString(buf);
+
+            int factionCount = buf.getInt();
+            List<FactionRecord> factions = new ArrayList<>(factionCount);
+            for (int i = 0; i < factionCount; i++) {
+                String name = readString(buf), tag = readString(buf);
+                String world = version >= 2 ? strings[buf.getInt()] : "f_" + name.toLowerCase(); // v1 predates world pooling
+                UUID owner = buf.get() != 0 ? new UUID(buf.getLong(), buf.getLong()) : null;
+                UUID[] members = new UUID[buf.getInt()];
+                for (int m = 0; m < members.length; m++) members[m] = new UUID(buf.getLong(), buf.getLong());
+                FactionRecord.Home home = null;
+                if (buf.get() != 0)
+                    home = new FactionRecord.Home(strings[buf.getInt()], buf.getDouble(), buf.getDouble(), buf.getDouble(), buf.getFloat(), buf.getFloat());
+                List<ChunkPos> claims = new ArrayList<>();
+                for (int g = buf.getInt(); g > 0; g--) {
+                    String claimWorld = strings[buf.getInt()];
+                    for (int n = buf.getInt(); n > 0; n--) {
+                        long key = buf.getLong();
+                        claims.add(new ChunkPos(claimWorld, (int) (key >> 32), (int) key));
+                    }
+                }
+                factions.add(new FactionRecord(name, tag, world, owner, Arrays.asList(members), home, claims,
+                        buf.getInt(), buf.getInt(), buf.getInt(), buf.getLong(), buf.getLong(), buf.getLong()));
+            }
+
+            int playerCount = buf.getInt();
+            Map<UUID, String> players = new HashMap<>(playerCount * 2);
+            for (int i = 0; i < playerCount; i++) players.put(new UUID(buf.getLong(), buf.getLong()), strings[buf.getInt()]);
+            return new StoredData(factions, players);
+        } catch (RuntimeException e) { // BufferUnderflow, bad string index, ...
+            throw new IOException(file.getName() + ": corrupt payload", e);
+        }
+    }
+
+    @Override
+    public byte[] encode(StoredData data) throws IOException {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(1 << 16);
+        DataOutputStream out = new DataOutputStream(payload);
+
+        // factions and players first, so the string table is complete; it is spliced in front below
+        out.writeInt(data.factions().size());
+        Map<String, List<ChunkPos>> byWorld = new LinkedHashMap<>();
+        for (FactionRecord f : data.factions()) {
+            writeString(out, f.name());
+            writeString(out, f.tag());
+            out.writeInt(intern(strings, f.world()));
+            writeUuid(out, f.owner());
+            out.writeInt(f.members().size());
+            for (UUID m : f.members()) { out.writeLong(m.getMostSignificantBits()); out.writeLong(m.getLeastSignificantBits()); }
+            var h = f.home();
+            out.writeByte(h == null ? 0 : 1);
+            if (h != null) {
+                out.writeInt(intern(strings, h.world()));
+                out.writeDouble(h.x()); out.writeDouble(h.y()); out.writeDouble(h.z());
+                out.writeFloat(h.yaw()); out.writeFloat(h.pitch());
+            }
+            byWorld.clear();
+            for (ChunkPos cp : f.claims()) byWorld.computeIfAbsent(cp.world, k -> new ArrayList<>()).add(cp);
+            out.writeInt(byWorld.size());
+            for (var e : byWorld.entrySet()) {
+                out.writeInt(intern(strings, e.getKey()));
+                out.writeInt(e.getValue().size());
+                for (ChunkPos cp : e.getValue()) out.writeLong(ClaimIndex.pack(cp.x, cp.z));
+            }
+            out.writeInt(f.speedLevel()); out.writeInt(f.damageLevel()); out.writeInt(f.heartsLevel());
+            out.writeLong(f.createdAt()); out.writeLong(f.defendUntil()); out.writeLong(f.defendCooldownUntil());
+        }
+        out.writeInt(data.players().size());
+        for (var e : data.players().entrySet()) {
+            out.writeLong(e.getKey().getMostSignificantBits()); out.writeLong(e.getKey().getLeastSignificantBits());
+            out.writeInt(intern(strings, e.getValue()));
+        }
+        out.flush();
+
+        ByteArrayOutputStream table = new ByteArrayOutputStream();
+        DataOutputStream tout = new DataOutputStream(table);
+        tout.writeInt(strings.size());
+        for (String s : strings.keySet()) writeString(tout, s);
+        tout.flush();
+
+        CRC32 crc = new CRC32();
+        crc.update(table.toByteArray());
+        crc.update(payload.toByteArray());
+        ByteArrayOutputStream file = new ByteArrayOutputStream(HEADER_BYTES + table.size() + payload.size());
+        DataOutputStream fout = new DataOutputStream(file);
+        fout.writeInt(MAGIC);
+        fout.writeInt(VERSION);
+        fout.writeInt(table.size() + payload.size());
+        fout.writeInt((int) crc.getValue());
+        table.writeTo(fout);
+        payload.writeTo(fout);
+        fout.flush();
+        return file.toByteArray();
+    }
+
+    private static int intern(Map<String, Integer> strings, String s) {
+        Integer idx = strings.get(s);
+        if (idx == null) { idx = strings.size(); strings.put(s, idx); }
+        return idx;
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID u) throws IOException {
+        out.writeByte(u == null ? 0 : 1);
+        if (u != null) { out.writeLong(u.getMostSignificantBits()); out.writeLong(u.getLeastSignificantBits()); }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    private static String readString(ByteBuffer buf) {
+        int len = buf.getInt();
+        String s = new String(buf.array(), buf.arrayOffset() + buf.position(), len, StandardCharsets.UTF_8);
+        buf.position(buf.position() + len);
+        return s;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.factionslite;
+
+import com.example.factionslite.FactionsLite.Faction;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
+import org.bukkit.entity.Player;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.*;
+
+/**
+ * Faction upgrade buffs (Speed, Strength, extra hearts while in your own faction world).
+ * <p>
+ * Remembers the buff state last applied to each player and only touches the player when it
+ * changes: call {@link #update(Player)} on world change, join, respawn, upgrade purchase and
+ * faction change. Effects are applied for {@link #DURATION} ticks and refreshed shortly before
+ * they run out; the refresh queue is ordered by due tick, so idle ticks cost a single peek.
+ */
+final class BuffManager extends BukkitRunnable {
+    static final int DURATION = 600;       // ticks an applied effect lasts
+    private static final int MARGIN = 40;  // refresh this many ticks before expiry
+    private static final double BASE_HEALTH = 20.0;
+
+    private final FactionsLite plugin;
+    private final Map<UUID, Applied> applied = new HashMap<>();
+    private final PriorityQueue<Applied> refreshQueue = new PriorityQueue<>(Comparator.comparingLong(a -> a.refreshAt));
+    private long tick;
+
+    private static final class Applied {
+        final Player player;
+        int state;      // see stateOf()
+        long refreshAt; // 0 = nothing to refresh
+        Applied(Player player) { this.player = player; }
+    }
+
+    BuffManager(FactionsLite plugin) { this.plugin = plugin; }
+
+    /** Buff state: 0 when not in the own faction world, else 1 | speed << 1 | damage << 3 | hearts << 5. */
+    private int stateOf(Player p) {
+        Faction f = plugin.getPlayerFaction(p);
+        if (f == null || plugin.getFactionByWorld(p.getWorld()) != f) return 0;
+        return 1 | f.speedLevel << 1 | f.damageLevel << 3 | f.heartsLevel << 5;
+    }
+
+    void update(Player p) { apply(p, false); }
+
+    /** Re-applies even if the state is unchanged (effects were cleared, e.g. by death). */
+    void reapply(Player p) { apply(p, true); }
+
+    void forget(Player p) { applied.remove(p.getUniqueId()); }
+
+    private void apply(Player p, boolean force) {
+        int state = stateOf(p);
+        Applied a = applied.get(p.getUniqueId());
+        if (a == null || a.player != p) {
+            if (state == 0 && a == null) {
+                // not buffed this session, but hearts set before a restart (or before the faction world
+                // unloaded) are still on the player: join outside the faction world resets them
+                var attr = p.getAttribute(Attribute.GENERIC_MAX_HEALTH);
+                if (attr != null) setMaxHealth(p, attr, BASE_HEALTH);
+                return;
+            }
+            a = new Applied(p);
+            applied.put(p.getUniqueId(), a);
+            force = true;
+        }
+        if (!force && a.state == state) return;
+        int old = a.state;
+        if (speed(old) > 0 && speed(state) == 0) p.removePotionEffect(PotionEffectType.SPEED);
+        if (damage(old) > 0 && damage(state) == 0) p.removePotionEffect(PotionEffectType.INCREASE_DAMAGE);
+        addEffects(p, state);
+        var attr = p.getAttribute(Attribute.GENERIC_MAX_HEALTH);
+        if (attr != null && (force || hearts(old) != hearts(state))) setMaxHealth(p, attr, BASE_HEALTH + hearts(state) * 2.0);
+        a.state = state;
+        if (state == 0) { applied.remove(p.getUniqueId()); return; }
+        scheduleRefresh(a);
+    }
+
+    private void scheduleRefresh(Applied a) {
+        refreshQueue.remove(a);
+        a.refreshAt = speed(a.state) > 0 || damage(a.state) > 0 ? tick + DURATION - MARGIN : 0;
+        if (a.refreshAt != 0) refreshQueue.add(a);
+    }
+
+    @Override
+    public void run() {
+        long t = plugin.perf.start();
+        refreshDue();
+        plugin.perf.stop(Perf.Path.BUFF_TICK, t);
+    }
+
+    private void refreshDue() {
+        tick++;
+        Applied a;
+        while ((a = refreshQueue.peek()) != null && a.refreshAt <= tick) {
+            refreshQueue.poll();
+            if (applied.get(a.player.getUniqueId()) != a || !a.player.isOnline()) continue;
+            // the state may have drifted without an event we listen to; fall back to a full update
+            if (stateOf(a.player) != a.state) { update(a.player); continue; }
+            addEffects(a.player, a.state);
+            a.refreshAt = tick + DURATION - MARGIN;
+            refreshQueue.add(a);
+        }
+    }
+
+    private static void addEffects(Player p, int state) {
+        if (speed(state) > 0) p.addPotionEffect(new PotionEffect(PotionEffectType.SPEED, DURATION, speed(state) - 1, true, false, false));
+        if (damage(state) > 0) p.addPotionEffect(new PotionEffect(PotionEffectType.INCREASE_DAMAGE, DURATION, damage(state) - 1, true, false, false));
+    }
+
+    private static void setMaxHealth(Player p, AttributeInstance attr, double max) {
+        if (attr.getBaseValue() == max) return;
+        attr.setBaseValue(max);
+        if (p.getHealth() > max) p.setHealth(max);
+    }
+
+    private static int speed(int state) { return state >> 1 & 3; }
+    private static int damage(int state) { return state >> 3 & 3; }
+    private static int hearts(int state) { return state >> 5 & 3; }
+}
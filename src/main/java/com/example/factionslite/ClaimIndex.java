@@ -0,0 +1,29 @@
+package com.example.factionslite;
+
+import com.example.factionslite.FactionsLite.Faction;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Chunk ownership index: one {@link LongObjectMap} per world, keyed by the packed chunk
+ * coordinates {@code x << 32 | z}. Must be updated alongside {@code Faction.claims}.
+ */
+final class ClaimIndex {
+    private final Map<String, LongObjectMap<Faction>> byWorld = new HashMap<>();
+
+    static long pack(int x, int z) { return ((long) x << 32) | (z & 0xFFFFFFFFL); }
+
+    Faction owner(String world, int x, int z) {
+        LongObjectMap<Faction> m = byWorld.get(world);
+        return m == null ? null : m.get(pack(x, z));
+    }
+
+    /** Records the claim unless the chunk is already owned; returns the existing owner, or null on success. */
+    Faction claim(String world, int x, int z, Faction f) {
+        return byWorld.computeIfAbsent(world, k -> new LongObjectMap<>()).putIfAbsent(pack(x, z), f);
+    }
+
+    /** The live map of one world, or null if nothing is claimed there; read-only for callers. */
+    LongObjectMap<Faction> worldMap(String world) { return byWorld.get(world); }
+}
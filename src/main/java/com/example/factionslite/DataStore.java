@@ -0,0 +1,160 @@
+package com.example.factionslite;
+
+import com.example.factionslite.FactionsLite.Faction;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+
+/**
+ * Write-behind persistence for the data file, in whichever {@link Storage} format is configured.
+ * <p>
+ * Mutations call {@link #markDirty(Faction)} / {@link #markPlayersDirty()}, which schedule a
+ * flush {@code delayTicks} later; everything dirtied inside that window is written once.
+ * A flush re-snapshots only the dirty factions on the main thread (clean ones reuse their last
+ * {@link FactionRecord}), then serialization and the temp-file-and-rename write happen on a
+ * single background thread. If a write is still running when the next snapshot arrives, only
+ * the newest snapshot is written.
+ */
+final class DataStore {
+    private final JavaPlugin plugin;
+    private final Storage storage;
+    private final Perf perf;
+    private final File file;
+    private final Collection<Faction> factions;     // live view, main thread only
+    private final Map<UUID, Faction> players;       // live view, main thread only
+    private final long delayTicks;
+
+    private final Set<Faction> dirty = Collections.newSetFromMap(new IdentityHashMap<>());
+    private Map<Faction, FactionRecord> records = new IdentityHashMap<>();
+    private Map<UUID, String> playersCopy = Map.of();
+    private boolean playersDirty = true;
+    private BukkitTask pending;
+    private boolean loaded; // never write before a successful load, or a corrupt file would be replaced by an empty one
+
+    private final AtomicReference<StoredData> nextWrite = new AtomicReference<>();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "FactionsLite-save"); t.setDaemon(true); return t;
+    });
+
+    DataStore(JavaPlugin plugin, Storage storage, Perf perf, Collection<Faction> factions, Map<UUID, Faction> players, long delayTicks) {
+        this.plugin = plugin; this.storage = storage; this.perf = perf; this.file = new File(plugin.getDataFolder(), storage.fileName());
+        this.factions = factions; this.players = players; this.delayTicks = delayTicks;
+    }
+
+    File file() { return file; }
+
+    StoredData load() throws IOException {
+        StoredData data = storage.load(file);
+        loaded = true;
+        return data;
+    }
+
+    void markDirty(Faction f) { dirty.add(f); scheduleFlush(); }
+    void markPlayersDirty() { playersDirty = true; scheduleFlush(); }
+
+    private void scheduleFlush() {
+        if (pending != null) return;
+        pending = Bukkit.getScheduler().runTaskLater(plugin, this::flush, delayTicks);
+    }
+
+    /** Main thread: snapshot current state and hand it to the writer thread. */
+    void flush() {
+        if (pending != null) { pending.cancel(); pending = null; }
+        if (!loaded) return;
+        long t = perf.start();
+        nextWrite.set(snapshot());
+        perf.stop(Perf.Path.SAVE_SNAPSHOT, t);
+        writer.execute(() -> {
+            StoredData data = nextWrite.getAndSet(null);
+            if (data == null) return;
+            long w = perf.start();
+            write(storage, file, data);
+            perf.stop(Perf.Path.SAVE_WRITE, w);
+        });
+    }
+
+    /** Snapshots every faction and writes the file on the calling thread (benchmarks); the plugin itself saves via flush(). */
+    void saveNow() throws IOException {
+        dirty.addAll(factions);
+        playersDirty = true;
+        writeAtomically(file, storage.encode(snapshot()));
+    }
+
+    /** Writes the current state to {@code target} in another format (e.g. a YAML dump of data.bin), off-thread. */
+    void export(Storage format, File target, Runnable done) {
+        StoredData data = snapshot();
+        writer.execute(() -> {
+            write(format, target, data);
+            Bukkit.getScheduler().runTask(plugin, done);
+        });
+    }
+
+    /**
+     * Final flush on disable: waits at most timeoutMs for pending writes to land. changed are
+     * factions modified without markDirty, which would schedule a task and the scheduler
+     * refuses those once the plugin is disabled.
+     */
+    void shutdown(Collection<Faction> changed, long timeoutMs) {
+        dirty.addAll(changed);
+        flush();
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS))
+                plugin.getLogger().severe("Timed out after " + timeoutMs + "ms waiting for " + file.getName() + " to be written; latest changes may be lost.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private StoredData snapshot() {
+        Map<Faction, FactionRecord> next = new IdentityHashMap<>(factions.size() * 2);
+        for (Faction f : factions) {
+            FactionRecord r = dirty.contains(f) ? null : records.get(f);
+            next.put(f, r != null ? r : f.snapshot());
+        }
+        records = next;
+        dirty.clear();
+        if (playersDirty) { playersCopy = playerNames(); playersDirty = false; }
+        return new StoredData(List.copyOf(next.values()), playersCopy);
+    }
+
+    // the file keeps names; Faction references only live in memory
+    private Map<UUID, String> playerNames() {
+        Map<UUID, String> names = new HashMap<>(players.size() * 2);
+        for (var e : players.entrySet()) names.put(e.getKey(), e.getValue().name);
+        return Collections.unmodifiableMap(names);
+    }
+
+    private void write(Storage format, File target, StoredData data) {
+        try {
+            writeAtomically(target, format.encode(data));
+        } catch (IOException | RuntimeException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not save " + target.getName(), e);
+        }
+    }
+
+    /** Writes bytes to a sibling temp file and renames it over target, so readers never see a partial file. */
+    static void writeAtomically(File target, byte[] bytes) throws IOException {
+        Path path = target.toPath();
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(tmp, bytes);
+        try {
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.factionslite;
+
+import com.example.factionslite.FactionsLite.Faction;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.*;
+
+/**
+ * Applies defend effects once per cycle, per defending faction rather than per player:
+ * members inside the base get Resistance + Regeneration, and while at least one member is in
+ * the faction world, everyone else inside the base gets Slowness. Each faction world is scanned
+ * once per cycle. Runs every tick, working through the cycle's queue until the tick's time
+ * budget is used up, so a cycle over many raided factions is spread over several ticks.
+ */
+final class DefendTask extends BukkitRunnable {
+    private static final PotionEffect RESISTANCE = new PotionEffect(PotionEffectType.DAMAGE_RESISTANCE, 140, 0, true, false, false);
+    private static final PotionEffect REGEN = new PotionEffect(PotionEffectType.REGENERATION, 140, 0, true, false, false);
+    private static final PotionEffect SLOW = new PotionEffect(PotionEffectType.SLOW, 100, 0, true, false, false);
+
+    private final FactionsLite plugin;
+    private final Set<Faction> defending = new LinkedHashSet<>(); // factions with a defend that may still be running
+    private final ArrayDeque<Faction> queue = new ArrayDeque<>();
+    private final List<Player> enemies = new ArrayList<>();
+    private final long cycleTicks, budgetNanos;
+    private long tick, nextCycle;
+
+    DefendTask(FactionsLite plugin, long cycleTicks, long budgetNanos) {
+        this.plugin = plugin; this.cycleTicks = cycleTicks; this.budgetNanos = budgetNanos;
+    }
+
+    /** Called when a faction starts defending (and for running defends on load). */
+    void track(Faction f) { defending.add(f); }
+
+    @Override
+    public void run() {
+        long t = plugin.perf.start();
+        tick();
+        plugin.perf.stop(Perf.Path.DEFEND_TICK, t);
+    }
+
+    private void tick() {
+        tick++;
+        if (queue.isEmpty()) {
+            if (tick < nextCycle || defending.isEmpty()) return;
+            nextCycle = tick + cycleTicks;
+            for (Iterator<Faction> it = defending.iterator(); it.hasNext(); ) {
+                Faction f = it.next();
+                if (plugin.isDefending(f)) queue.add(f); else it.remove();
+            }
+        }
+        long deadline = System.nanoTime() + budgetNanos;
+        do {
+            Faction f = queue.poll();
+            if (f == null) break;
+            if (f.world != null && plugin.isDefending(f)) apply(f, f.world);
+        } while (System.nanoTime() < deadline);
+    }
+
+    private void apply(Faction f, World w) {
+        boolean defenderPresent = false;
+        enemies.clear();
+        for (Player p : w.getPlayers()) {
+            boolean member = plugin.getPlayerFaction(p) == f;
+            defenderPresent |= member;
+            if (!plugin.insideBaseSquare(f, p.getLocation())) continue;
+            if (member) { p.addPotionEffect(RESISTANCE); p.addPotionEffect(REGEN); }
+            else enemies.add(p);
+        }
+        if (defenderPresent) for (Player p : enemies) p.addPotionEffect(SLOW);
+        enemies.clear();
+    }
+}
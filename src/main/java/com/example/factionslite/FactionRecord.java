@@ -0,0 +1,17 @@
+package com.example.factionslite;
+
+import com.example.factionslite.FactionsLite.ChunkPos;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable copy of one faction's persisted state. Taken on the main thread and handed to
+ * the storage writer, so it must never reference live plugin objects (Location, World, ...).
+ */
+record FactionRecord(String name, String tag, String world, UUID owner, List<UUID> members, Home home, List<ChunkPos> claims,
+                     int speedLevel, int damageLevel, int heartsLevel,
+                     long createdAt, long defendUntil, long defendCooldownUntil) {
+
+    record Home(String world, double x, double y, double z, float yaw, float pitch) {}
+}
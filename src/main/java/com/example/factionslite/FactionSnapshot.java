@@ -0,0 +1,54 @@
+package com.example.factionslite;
+
+import java.util.*;
+
+/**
+ * Immutable, versioned view of the faction registry: membership, claims, worlds and
+ * shield/raid state. Safe to read from any thread without locks (async chat, tab completion,
+ * map renderers). Get the current one from {@link FactionsLite#getSnapshot()}. The plugin
+ * publishes a new one, version + 1, once per tick in which factions changed, so a snapshot can
+ * be up to a tick behind the main thread. Keep one instance for reads that must agree with
+ * each other.
+ */
+public final class FactionSnapshot {
+    /** A claimed chunk. */
+    public record Claim(String world, int x, int z) {}
+
+    /** One faction as of the snapshot it came from; all collections are immutable. id is stable for the server run only. */
+    public record FactionInfo(int id, String name, String tag, UUID owner, Set<UUID> members, String world, List<Claim> claims,
+                              boolean newbieShield, boolean defending, boolean raidActive) {
+        /** Newbie shield or defend: raids and TNT are blocked. */
+        public boolean shielded() { return newbieShield || defending; }
+    }
+
+    static final FactionSnapshot EMPTY = new FactionSnapshot(0L, ShardedMap.empty(), ShardedMap.empty(), new FactionInfo[0], Map.of());
+
+    private final long version;
+    final ShardedMap<String, FactionInfo> byName;            // lower-case name
+    final ShardedMap<UUID, FactionInfo> byPlayer;
+    final FactionInfo[] byId;                                // faction id -> info, null for ids no longer in use
+    final Map<String, LongObjectMap<Integer>> claims;        // world -> packed chunk -> owner id; none of these mutate once published
+
+    FactionSnapshot(long version, ShardedMap<String, FactionInfo> byName, ShardedMap<UUID, FactionInfo> byPlayer, FactionInfo[] byId,
+                    Map<String, LongObjectMap<Integer>> claims) {
+        this.version = version; this.byName = byName; this.byPlayer = byPlayer; this.byId = byId; this.claims = claims;
+    }
+
+    /** Increases by one per published snapshot; equal versions mean equal contents. */
+    public long version() { return version; }
+
+    /** Faction by name (case-insensitive), or null. */
+    public FactionInfo faction(String name) { return byName.get(name.toLowerCase()); }
+
+    /** The player's faction, or null. */
+    public FactionInfo factionOf(UUID player) { return byPlayer.get(player); }
+
+    /** Owner of the chunk, or null if unclaimed. */
+    public FactionInfo factionAt(String world, int chunkX, int chunkZ) {
+        LongObjectMap<Integer> m = claims.get(world);
+        Integer id = m == null ? null : m.get(ClaimIndex.pack(chunkX, chunkZ));
+        return id == null ? null : byId[id];
+    }
+
+    public Collection<FactionInfo> factions() { return Collections.unmodifiableCollection(byName.values()); }
+}
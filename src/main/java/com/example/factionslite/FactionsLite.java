@@ -2,7 +2,6 @@
 package com.example.factionslite;
 
 import org.bukkit.*;
-import org.bukkit.attribute.Attribute;
 import org.bukkit.attribute.AttributeInstance;
 import org.bukkit.block.Block;
 import org.bukkit.command.Command;
@@ -10,223 +9,424 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.event.entity.EntityExplodeEvent;
 import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
 import org.bukkit.inventory.Inventory;
-import org.bukkit.inventory.ItemFlag;
-import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.plugin.PluginDescriptionFile;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.plugin.java.JavaPluginLoader;
 import org.bukkit.util.Vector;
 import org.bukkit.ChatColor;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class FactionsLite extends JavaPlugin implements Listener {
 
     private final Map<String, Faction> factionsByName = new HashMap<>();
-    private final Map<UUID, String> playerFaction = new HashMap<>();
-    private final Map<String, Long> activeRaids = new HashMap<>(); // targetName -> endTime (ms)
+    private int nextFactionId; // Faction ids are dense and per run; names are what is persisted
+    private final Map<UUID, Faction> playerFaction = new HashMap<>();
+    final Perf perf = new Perf(false); // enabled from config in onEnable
+    private final ClaimIndex claimIndex = new ClaimIndex(); // world -> packed chunk -> owner
+    private final Map<UUID, Faction> factionsByWorld = new HashMap<>(); // loaded world UID -> owner
+    private final Map<String, Faction> factionsByWorldName = new HashMap<>(); // lower-case world name -> owner, loaded or not
+    private final SnapshotPublisher snapshots = new SnapshotPublisher(this, factionsByName, claimIndex); // read-only view for other threads
+    private final TimerWheel<Timer> timers = new TimerWheel<>(50L, 512, System.currentTimeMillis()); // raid/shield/defend ends
+    private int baseHalf, baseBuffer, newbieHours; // cached from config by readSettings()
+    DataStore store;
+    private DefendTask defendTask;
+    private BuffManager buffs;
+    private RaidExplosions explosions;
+    private WorldPool worldPool;
+    private WorldLifecycle worldLifecycle;
+    private final Set<Faction> upgraded = Collections.newSetFromMap(new IdentityHashMap<>()); // upgrades not yet committed, see commitUpgradeLater()
+
+    public FactionsLite() { super(); }
+
+    /** Runs the plugin outside a server (benchmarks in bench/); see the matching JavaPlugin constructor. */
+    protected FactionsLite(JavaPluginLoader loader, PluginDescriptionFile description, File dataFolder, File file) {
+        super(loader, description, dataFolder, file);
+    }
 
     @Override
     public void onEnable() {
         saveDefaultConfig();
-        getConfig().addDefault("faction.base.size", 96);
-        getConfig().addDefault("faction.base.buffer", 16);
-        getConfig().addDefault("raid.duration.seconds", 900);
-        // Newbie shield + defend
-        getConfig().addDefault("shield.newbie.hours", 24); // 24h protection for new factions
-        getConfig().addDefault("shield.defend.duration.seconds", 180); // 3 min defend
-        getConfig().addDefault("shield.defend.cooldown.seconds", 900); // 15 min cooldown
-        getConfig().options().copyDefaults(true);
+        addConfigDefaults();
         saveConfig();
+        readSettings();
+        perf.setEnabled(getConfig().getBoolean("perf.enabled"));
 
-        loadData();
+        if (!loadData()) { getServer().getPluginManager().disablePlugin(this); return; }
         getServer().getPluginManager().registerEvents(this, this);
 
-        // periodic buffs + defend effects tick
-        new BukkitRunnable() {
-            @Override public void run() {
-                for (Player p : Bukkit.getOnlinePlayers()) {
-                    applyBuffsIfInFactionWorld(p);
-                    applyDefendEffectsTick(p);
-                }
-            }
-        }.runTaskTimer(this, 40L, 100L);
+        // upgrade buffs: applied on state changes, refreshed just before they expire
+        buffs = new BuffManager(this);
+        buffs.runTaskTimer(this, 1L, 1L);
+        for (Player p : Bukkit.getOnlinePlayers()) buffs.update(p);
+        // defend effects: every 100 ticks per defending faction, time-sliced across ticks
+        defendTask = new DefendTask(this, 100L, (long) (getConfig().getDouble("shield.defend.tick-budget-ms") * 1_000_000L));
+        for (Faction f : factionsByName.values()) if (isDefending(f)) defendTask.track(f);
+        defendTask.runTaskTimer(this, 40L, 1L);
+        // explosion budget + deferred block breaking + raid stats
+        explosions = new RaidExplosions(Math.max(1, getConfig().getInt("raid.explosions.per-tick")),
+                Math.max(1, getConfig().getInt("raid.explosions.deferred-blocks-per-tick")));
+        explosions.runTaskTimer(this, 1L, 1L);
+        // faction world pool
+        worldPool = new WorldPool(this, getConfig().getString("worlds.pool.prefix"), getConfig().getInt("worlds.pool.size"),
+                getConfig().getInt("worlds.pool.pregen-radius"), Math.max(1, getConfig().getInt("worlds.pool.pregen-chunks-per-tick")),
+                getConfig().getDouble("worlds.pool.fill-below-tick-ms"), getConfig().getInt("worlds.pool.fill-max-players"),
+                getConfig().getLong("worlds.pool.fill-interval-seconds") * 1000L, factionsByWorldName.keySet());
+        worldPool.runTaskTimer(this, 100L, 1L);
+        // worlds queued by /f create are only in memory; re-queue the ones a restart cut off
+        for (Faction f : factionsByName.values()) if (f.world == null && !worldOnDisk(f.worldName)) worldPool.enqueue(f, null);
+        worldLifecycle = new WorldLifecycle(this, getConfig().getLong("worlds.idle-unload-minutes") * 60_000L,
+                getConfig().getInt("worlds.warm-radius"), Math.max(1, getConfig().getInt("worlds.warm-chunks-per-tick")));
+        worldLifecycle.runTaskTimer(this, 1L, 1L);
+        // rolling perf export
+        long exportTicks = getConfig().getLong("perf.export-interval-seconds") * 20L;
+        if (exportTicks > 0) getServer().getScheduler().runTaskTimer(this, this::exportPerf, exportTicks, exportTicks);
+        // raid / shield / defend expirations (one clock read per tick)
+        getServer().getScheduler().runTaskTimer(this, () -> timers.advance(System.currentTimeMillis(), this::onExpired), 1L, 1L);
 
         getLogger().info("FactionsLite v1.2.0 enabled. Factions: " + factionsByName.size());
     }
 
     @Override
-    public void onDisable() { saveData(); }
+    public void onDisable() {
+        // upgrades bought in the last tick go straight into the final write: their commit task will not run,
+        // and nothing can be scheduled any more (no markDirty, no snapshot publish)
+        if (store != null) store.shutdown(upgraded, getConfig().getLong("storage.shutdown-timeout-seconds") * 1000L);
+        upgraded.clear();
+    }
 
-    // ===== Data persistence =====
-    private File dataFile() { return new File(getDataFolder(), "data.yml"); }
+    /** Registers every config key with its default (also used by the headless harnesses, which skip onEnable). */
+    void addConfigDefaults() {
+        getConfig().addDefault("faction.base.size", 96);
+        getConfig().addDefault("faction.base.buffer", 16);
+        getConfig().addDefault("raid.duration.seconds", 900);
+        // Pre-generated faction worlds handed out by /f create. Creating one still freezes the main thread, so refills
+        // wait for a quiet server: at most fill-max-players online, fill-interval-seconds since the last world creation
+        getConfig().addDefault("worlds.pool.size", 2);
+        getConfig().addDefault("worlds.pool.prefix", "fpool_");
+        getConfig().addDefault("worlds.pool.pregen-radius", 4); // chunks around spawn
+        getConfig().addDefault("worlds.pool.pregen-chunks-per-tick", 2);
+        getConfig().addDefault("worlds.pool.fill-max-players", 10);
+        getConfig().addDefault("worlds.pool.fill-interval-seconds", 300);
+        getConfig().addDefault("worlds.pool.fill-below-tick-ms", 52.0); // lag guard only: skip refills while under 20 TPS
+        // Faction worlds load on demand and unload after this long without players, raid or defend
+        getConfig().addDefault("worlds.idle-unload-minutes", 10);
+        getConfig().addDefault("worlds.warm-radius", 2); // chunks around the base loaded before /f base teleports
+        getConfig().addDefault("worlds.warm-chunks-per-tick", 4);
+        getConfig().addDefault("raid.explosions.per-tick", 64); // explosions per faction world per tick before blocks are deferred
+        getConfig().addDefault("raid.explosions.deferred-blocks-per-tick", 2048);
+        // Newbie shield + defend
+        getConfig().addDefault("shield.newbie.hours", 24); // 24h protection for new factions
+        getConfig().addDefault("shield.defend.duration.seconds", 180); // 3 min defend
+        getConfig().addDefault("shield.defend.cooldown.seconds", 900); // 15 min cooldown
+        getConfig().addDefault("shield.defend.tick-budget-ms", 1.0); // defend effects: max main-thread time per tick
+        // Persistence: storage.backend is "yaml" (data.yml) or "binary" (data.bin, imported from data.yml on first boot)
+        getConfig().addDefault("storage.backend", "yaml");
+        getConfig().addDefault("storage.save-delay-ticks", 40); // changes within this window are written once
+        getConfig().addDefault("storage.shutdown-timeout-seconds", 10);
+        // Hot-path timings (/f perf); export-interval-seconds 0 disables the rolling CSV (perf.csv)
+        getConfig().addDefault("perf.enabled", false);
+        getConfig().addDefault("perf.export-interval-seconds", 60);
+        getConfig().options().copyDefaults(true);
+    }
 
-    private void loadData() {
+    // ===== Data persistence =====
+    /** Opens the configured backend and loads it; false if the data file is unreadable (plugin must not run or save). */
+    boolean loadData() {
         getDataFolder().mkdirs();
-        if (!dataFile().exists()) return;
-        var yml = org.bukkit.configuration.file.YamlConfiguration.loadConfiguration(dataFile());
-        var sec = yml.getConfigurationSection("factions");
-        if (sec != null) {
-            for (String name : sec.getKeys(false)) {
-                String tag = sec.getString(name + ".tag", name);
-                String ownerStr = sec.getString(name + ".owner");
-                UUID owner = ownerStr == null ? null : UUID.fromString(ownerStr);
-                Faction f = new Faction(name, tag, owner);
-                for (String s : sec.getStringList(name + ".members")) f.members.add(UUID.fromString(s));
-                if (sec.isConfigurationSection(name + ".home")) {
-                    var hs = sec.getConfigurationSection(name + ".home");
-                    String world = hs.getString("world");
-                    double x = hs.getDouble("x"), y = hs.getDouble("y"), z = hs.getDouble("z");
-                    float yaw = (float) hs.getDouble("yaw"), pitch = (float) hs.getDouble("pitch");
-                    if (Bukkit.getWorld(world) != null) f.home = new Location(Bukkit.getWorld(world), x, y, z, yaw, pitch);
-                }
-                for (String c : sec.getStringList(name + ".claims")) {
-                    String[] p = c.split(";"); f.claims.add(new ChunkPos(p[0], Integer.parseInt(p[1]), Integer.parseInt(p[2])));
-                }
-                f.speedLevel = sec.getInt(name + ".upgrades.speed", 0);
-                f.damageLevel = sec.getInt(name + ".upgrades.damage", 0);
-                f.heartsLevel = sec.getInt(name + ".upgrades.hearts", 0);
-                f.createdAt = sec.getLong(name + ".meta.createdAt", System.currentTimeMillis());
-                f.defendUntil = sec.getLong(name + ".meta.defendUntil", 0L);
-                f.defendCooldownUntil = sec.getLong(name + ".meta.defendCooldownUntil", 0L);
-                factionsByName.put(name.toLowerCase(), f);
+        Storage storage = "binary".equalsIgnoreCase(getConfig().getString("storage.backend")) ? new BinaryStorage() : new YamlStorage();
+        store = new DataStore(this, storage, perf, factionsByName.values(), playerFaction, Math.max(1L, getConfig().getLong("storage.save-delay-ticks")));
+        StoredData data;
+        long start = System.nanoTime();
+        try {
+            File legacy = new File(getDataFolder(), "data.yml");
+            if (storage instanceof BinaryStorage && !store.file().exists() && legacy.exists()) {
+                // first boot on the binary backend: import data.yml once; the YAML file is left in place as a backup
+                data = new YamlStorage().load(legacy);
+                DataStore.writeAtomically(store.file(), storage.encode(data));
+                getLogger().info("Imported data.yml into " + store.file().getName() + ".");
             }
+            data = store.load();
+        } catch (IOException e) {
+            getLogger().log(java.util.logging.Level.SEVERE, "Could not load " + store.file().getName() + "; disabling to avoid overwriting it.", e);
+            return false;
         }
-        var psec = yml.getConfigurationSection("players");
-        if (psec != null) for (String uuid : psec.getKeys(false)) playerFaction.put(UUID.fromString(uuid), psec.getString(uuid));
-    }
-
-    private void saveData() {
-        var yml = new org.bukkit.configuration.file.YamlConfiguration();
-        var sec = yml.createSection("factions");
-        for (Faction f : factionsByName.values()) {
-            String base = f.name;
-            sec.set(base + ".tag", f.tag);
-            sec.set(base + ".owner", f.owner == null ? null : f.owner.toString());
-            sec.set(base + ".members", f.members.stream().map(UUID::toString).collect(Collectors.toList()));
-            if (f.home != null) {
-                var hs = sec.createSection(base + ".home");
-                hs.set("world", f.home.getWorld().getName());
-                hs.set("x", f.home.getX()); hs.set("y", f.home.getY()); hs.set("z", f.home.getZ());
-                hs.set("yaw", f.home.getYaw()); hs.set("pitch", f.home.getPitch());
-            }
-            List<String> claimStr = new ArrayList<>(); for (ChunkPos cp : f.claims) claimStr.add(cp.world + ";" + cp.x + ";" + cp.z);
-            sec.set(base + ".claims", claimStr);
-            sec.set(base + ".upgrades.speed", f.speedLevel);
-            sec.set(base + ".upgrades.damage", f.damageLevel);
-            sec.set(base + ".upgrades.hearts", f.heartsLevel);
-            sec.set(base + ".meta.createdAt", f.createdAt);
-            sec.set(base + ".meta.defendUntil", f.defendUntil);
-            sec.set(base + ".meta.defendCooldownUntil", f.defendCooldownUntil);
+        int claims = 0;
+        for (FactionRecord r : data.factions()) {
+            Faction f = newFaction(r.name(), r.tag(), r.owner());
+            f.worldName = r.world();
+            factionsByWorldName.put(f.worldName.toLowerCase(), f);
+            f.members.addAll(r.members());
+            f.homeData = r.home(); // resolved to f.home when the world is loaded, see bindWorld()
+            for (ChunkPos cp : r.claims()) indexClaim(f, cp);
+            claims += r.claims().size();
+            f.speedLevel = r.speedLevel();
+            f.damageLevel = r.damageLevel();
+            f.heartsLevel = r.heartsLevel();
+            f.createdAt = r.createdAt();
+            f.defendUntil = r.defendUntil();
+            f.defendCooldownUntil = r.defendCooldownUntil();
+            factionsByName.put(r.name().toLowerCase(), f);
+        }
+        for (var e : data.players().entrySet()) {
+            Faction f = factionsByName.get(e.getValue().toLowerCase());
+            if (f != null) playerFaction.put(e.getKey(), f);
         }
-        var psec = yml.createSection("players");
-        for (var e : playerFaction.entrySet()) psec.set(e.getKey().toString(), e.getValue());
-        try { yml.save(dataFile()); } catch (IOException e) { e.printStackTrace(); }
+        for (World w : Bukkit.getWorlds()) bindWorld(w);
+        for (Faction f : factionsByName.values()) { rebuildBounds(f); refreshShields(f); }
+        snapshots.publishAll();
+        if (perf.enabled()) perf.record(Perf.Path.LOAD, System.nanoTime() - start);
+        getLogger().info("Loaded " + factionsByName.size() + " factions, " + claims + " claims, " + playerFaction.size() + " players from "
+                + store.file().getName() + " in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+        return true;
     }
 
+    /** Queues f for the next write-behind flush (see DataStore). */
+    private void markDirty(Faction f) { store.markDirty(f); snapshots.changed(f); }
+
+    /**
+     * Immutable view of all factions, claims and shield/raid state, safe to use from any thread;
+     * republished at most once per tick after changes, see {@link FactionSnapshot}.
+     */
+    public FactionSnapshot getSnapshot() { return snapshots.current(); }
+
     // ===== Utility =====
     private String color(String s) { return ChatColor.translateAlternateColorCodes('&', s); }
-    private Faction getPlayerFaction(Player p) { String fn = playerFaction.get(p.getUniqueId()); return fn == null ? null : factionsByName.get(fn.toLowerCase()); }
-    private String worldNameFor(String factionName) { return "f_" + factionName.toLowerCase(); }
+    Faction getPlayerFaction(Player p) { return playerFaction.get(p.getUniqueId()); }
+    /** Only way to create a Faction, so ids stay dense; the caller registers it by name. */
+    private Faction newFaction(String name, String tag, UUID owner) {
+        return new Faction(nextFactionId++, name, tag, owner);
+    }
+    String worldNameFor(String factionName) { return "f_" + factionName.toLowerCase(); }
+
+    void readSettings() {
+        baseHalf = getConfig().getInt("faction.base.size") / 2;
+        baseBuffer = getConfig().getInt("faction.base.buffer");
+        newbieHours = getConfig().getInt("shield.newbie.hours");
+    }
+    /** Recomputes f.bounds; call whenever the home or the base config changes. */
+    private Bounds rebuildBounds(Faction f) {
+        Location c = f.baseCenter();
+        f.bounds = c == null || c.getWorld() == null ? null : new Bounds(c.getWorld().getUID(), c.getBlockX(), c.getBlockZ(), baseHalf, baseHalf + baseBuffer);
+        return f.bounds;
+    }
+    /** No-op for a null location or world, so a failed or pending world load never erases the persisted home. */
+    private void setHome(Faction f, Location home) {
+        if (home == null || home.getWorld() == null) return;
+        f.home = home;
+        f.homeData = new FactionRecord.Home(home.getWorld().getName(), home.getX(), home.getY(), home.getZ(), home.getYaw(), home.getPitch());
+        rebuildBounds(f);
+        markDirty(f);
+    }
 
-    private boolean insideBaseSquare(Faction f, Location loc) {
-        int size = getConfig().getInt("faction.base.size"); int half = size/2;
-        Location c = f.baseCenter(); if (c == null || !Objects.equals(loc.getWorld(), c.getWorld())) return false;
-        return Math.abs(loc.getBlockX() - c.getBlockX()) <= half && Math.abs(loc.getBlockZ() - c.getBlockZ()) <= half;
+    boolean insideBaseSquare(Faction f, Location loc) {
+        Bounds b = f.bounds != null ? f.bounds : rebuildBounds(f);
+        World w = loc.getWorld();
+        return b != null && w != null && b.world.equals(w.getUID()) && b.inBase(loc.getBlockX(), loc.getBlockZ());
     }
-    private boolean insideSiegeRing(Faction f, Location loc) {
-        int size = getConfig().getInt("faction.base.size"); int half = size/2; int buffer = getConfig().getInt("faction.base.buffer");
-        Location c = f.baseCenter(); if (c == null || !Objects.equals(loc.getWorld(), c.getWorld())) return false;
-        int dx = Math.abs(loc.getBlockX() - c.getBlockX()), dz = Math.abs(loc.getBlockZ() - c.getBlockZ());
-        boolean outsideBase = dx > half || dz > half; boolean insideOuter = dx <= (half + buffer) && dz <= (half + buffer);
-        return outsideBase && insideOuter;
+    boolean insideSiegeRing(Faction f, Location loc) {
+        Bounds b = f.bounds != null ? f.bounds : rebuildBounds(f);
+        World w = loc.getWorld();
+        return b != null && w != null && b.world.equals(w.getUID()) && b.inRing(loc.getBlockX(), loc.getBlockZ());
     }
-    private Faction getFactionByWorld(World w) {
-        if (w == null) return null; String n = w.getName();
-        for (Faction f : factionsByName.values()) if (n.equalsIgnoreCase(worldNameFor(f.name))) return f;
-        return null;
+    Faction getFactionByWorld(World w) { return w == null ? null : factionsByWorld.get(w.getUID()); }
+    /** Registers w in factionsByWorld if it is the world of a known faction. */
+    private void bindWorld(World w) {
+        Faction f = factionsByWorldName.get(w.getName().toLowerCase());
+        if (f == null) return;
+        factionsByWorld.put(w.getUID(), f);
+        f.world = w;
+        var h = f.homeData;
+        if (h != null && h.world().equalsIgnoreCase(w.getName())) f.home = new Location(w, h.x(), h.y(), h.z(), h.yaw(), h.pitch());
+        rebuildBounds(f);
     }
-    private String getFactionAt(org.bukkit.Chunk chunk) {
-        String world = chunk.getWorld().getName(); int x = chunk.getX(), z = chunk.getZ();
-        for (Faction f : factionsByName.values()) for (ChunkPos cp : f.claims) if (cp.world.equals(world) && cp.x == x && cp.z == z) return f.name;
-        return null;
+    Faction getFactionAt(org.bukkit.Chunk chunk) { return claimIndex.owner(chunk.getWorld().getName(), chunk.getX(), chunk.getZ()); }
+
+    // ===== Claims (add through indexClaim so claimIndex stays in sync with Faction.claims) =====
+    private boolean indexClaim(Faction f, ChunkPos cp) {
+        if (claimIndex.claim(cp.world, cp.x, cp.z, f) != null) return false;
+        f.claims.add(cp); return true;
     }
 
-    // ===== Shields & Defend =====
-    private boolean hasNewbieShield(Faction f) {
-        long hrs = getConfig().getInt("shield.newbie.hours");
-        long until = f.createdAt + hrs*3600_000L;
-        return System.currentTimeMillis() < until;
+    /** True if the world has been generated (its level.dat exists), loaded or not. */
+    boolean worldOnDisk(String name) { return new File(new File(Bukkit.getWorldContainer(), name), "level.dat").exists(); }
+
+    /** Creates (or loads, if it exists on disk) a faction world with the standard settings. */
+    World createWorld(String name) {
+        long t = perf.start();
+        WorldCreator wc = new WorldCreator(name);
+        wc.environment(World.Environment.NORMAL);
+        wc.type(WorldType.NORMAL);
+        World w = Bukkit.createWorld(wc);
+        perf.stop(Perf.Path.WORLD_CREATE, t);
+        return w;
     }
-    private boolean isDefending(Faction f) { return System.currentTimeMillis() < f.defendUntil; }
-    private boolean isShielded(Faction f) { return hasNewbieShield(f) || isDefending(f); }
 
-    private void applyDefendEffectsTick(Player p) {
-        Faction f = getPlayerFaction(p);
-        if (f == null) return;
-        if (getFactionByWorld(p.getWorld()) != f) return;
-        if (!isDefending(f)) return;
-        // defenders get Resistance + Regen while in base
-        if (insideBaseSquare(f, p.getLocation())) {
-            p.addPotionEffect(new org.bukkit.potion.PotionEffect(org.bukkit.potion.PotionEffectType.DAMAGE_RESISTANCE, 140, 0, true, false, false));
-            p.addPotionEffect(new org.bukkit.potion.PotionEffect(org.bukkit.potion.PotionEffectType.REGENERATION, 140, 0, true, false, false));
+    /** Makes w the faction's world (pooled or freshly created) and its spawn the home; notifies requester if given. */
+    void attachWorld(Faction f, World w, UUID requester) {
+        factionsByWorldName.remove(f.worldName.toLowerCase());
+        f.worldName = w.getName();
+        factionsByWorldName.put(f.worldName.toLowerCase(), f);
+        factionsByWorld.put(w.getUID(), f);
+        f.world = w;
+        w.setGameRule(GameRule.KEEP_INVENTORY, true);
+        setHome(f, w.getSpawnLocation());
+        Player p = requester == null ? null : Bukkit.getPlayer(requester);
+        if (p != null) {
+            p.sendMessage(color("&aYour faction world &e" + w.getName() + "&a is ready. Use &e/f base&a."));
+            buffs.update(p);
         }
-        // enemies inside base get Slowness
-        for (Player other : p.getWorld().getPlayers()) {
-            if (other == p) continue;
-            Faction of = getPlayerFaction(other);
-            if (of == f) continue;
-            if (insideBaseSquare(f, other.getLocation())) {
-                other.addPotionEffect(new org.bukkit.potion.PotionEffect(org.bukkit.potion.PotionEffectType.SLOW, 100, 0, true, false, false));
+    }
+
+    // ===== Shields & Defend =====
+    // Event handlers only read the flags cached on Faction; the timer wheel clears them when they run out.
+    private enum Expiry { RAID, NEWBIE, DEFEND }
+    private record Timer(Expiry kind, Faction faction) {}
+
+    private boolean hasNewbieShield(Faction f) { return f.newbieShield; }
+    boolean isDefending(Faction f) { return f.defending; }
+    private boolean isShielded(Faction f) { return f.newbieShield || f.defending; }
+    private boolean isRaidActive(Faction f) { return f.raidActive; }
+
+    private long newbieShieldEnd(Faction f) { return f.createdAt + newbieHours * 3600_000L; }
+    /** Recomputes f's shield flags from its timestamps and schedules their expiry; call on load, create and reload. */
+    private void refreshShields(Faction f) {
+        long now = System.currentTimeMillis();
+        f.newbieShield = now < newbieShieldEnd(f);
+        if (f.newbieShield) timers.schedule(newbieShieldEnd(f), new Timer(Expiry.NEWBIE, f));
+        f.defending = now < f.defendUntil;
+        if (f.defending) timers.schedule(f.defendUntil, new Timer(Expiry.DEFEND, f));
+        snapshots.changed(f);
+    }
+    private void startRaid(Faction f, long end) {
+        f.raidEnd = end;
+        f.raidActive = true;
+        timers.schedule(end, new Timer(Expiry.RAID, f));
+        snapshots.changed(f);
+    }
+    private void startDefend(Faction f, long until) {
+        f.defendUntil = until;
+        f.defending = true;
+        timers.schedule(until, new Timer(Expiry.DEFEND, f));
+        snapshots.changed(f);
+    }
+
+    // Timers are never cancelled: one that was superseded (raid restarted, defend renewed, config reloaded) is ignored here.
+    private void onExpired(Timer t) {
+        Faction f = t.faction();
+        long now = System.currentTimeMillis();
+        switch (t.kind()) {
+            case RAID -> {
+                if (!f.raidActive || now < f.raidEnd) return;
+                f.raidActive = false;
+                snapshots.changed(f);
+                explosions.forget(f);
+                Bukkit.broadcastMessage(color("&c&lRAID &7> The raid on &c" + f.name + " &7has ended."));
+                getServer().getPluginManager().callEvent(new RaidEndEvent(f.name));
+            }
+            case NEWBIE -> {
+                if (!f.newbieShield || now < newbieShieldEnd(f)) return;
+                f.newbieShield = false;
+                snapshots.changed(f);
+                getServer().getPluginManager().callEvent(new ShieldDownEvent(f.name, ShieldDownEvent.Shield.NEWBIE, isShielded(f)));
+            }
+            case DEFEND -> {
+                if (!f.defending || now < f.defendUntil) return;
+                f.defending = false;
+                snapshots.changed(f);
+                getServer().getPluginManager().callEvent(new ShieldDownEvent(f.name, ShieldDownEvent.Shield.DEFEND, isShielded(f)));
             }
         }
     }
 
     // ===== Events =====
+    @EventHandler
+    public void onWorldLoad(WorldLoadEvent e) { bindWorld(e.getWorld()); }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent e) {
+        Faction f = factionsByWorld.remove(e.getWorld().getUID());
+        if (f == null || f.world != e.getWorld()) return;
+        f.world = null;
+        f.home = null; // the Location would pin the unloaded world; homeData keeps the coordinates
+    }
+
+    @EventHandler
+    public void onJoin(PlayerJoinEvent e) { buffs.update(e.getPlayer()); }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent e) { buffs.forget(e.getPlayer()); }
+
+    @EventHandler
+    public void onChangedWorld(PlayerChangedWorldEvent e) { buffs.update(e.getPlayer()); }
+
+    @EventHandler
+    public void onRespawn(PlayerRespawnEvent e) {
+        // death cleared the effects, and the player is only moved to the respawn location after this event
+        Player p = e.getPlayer();
+        Bukkit.getScheduler().runTask(this, () -> { if (p.isOnline()) buffs.reapply(p); });
+    }
+
     @EventHandler
     public void onBlockBreak(BlockBreakEvent e) {
+        long t = perf.start();
+        handleBlockBreak(e);
+        perf.stop(Perf.Path.BLOCK_BREAK, t);
+    }
+    private void handleBlockBreak(BlockBreakEvent e) {
         Player pl = e.getPlayer();
         Faction pf = getPlayerFaction(pl);
         Location loc = e.getBlock().getLocation();
         Faction at = getFactionByWorld(loc.getWorld());
         if (at == null) {
-            String owner = getFactionAt(e.getBlock().getChunk());
+            Faction owner = getFactionAt(e.getBlock().getChunk());
             if (owner == null) return;
-            if (pf == null || !owner.equalsIgnoreCase(pf.name)) { e.setCancelled(true); pl.sendMessage(ChatColor.RED + "This land is claimed by " + owner + "."); }
+            if (owner != pf) { e.setCancelled(true); pl.sendMessage(ChatColor.RED + "This land is claimed by " + owner.name + "."); }
             return;
         }
-        if (!at.equals(pf)) { e.setCancelled(true); return; }
+        if (at != pf) { e.setCancelled(true); return; }
         if (!insideBaseSquare(at, loc)) { e.setCancelled(true); }
     }
 
     @EventHandler
     public void onBlockPlace(BlockPlaceEvent e) {
+        long t = perf.start();
+        handleBlockPlace(e);
+        perf.stop(Perf.Path.BLOCK_PLACE, t);
+    }
+    private void handleBlockPlace(BlockPlaceEvent e) {
         Player pl = e.getPlayer();
         Faction pf = getPlayerFaction(pl);
         Location loc = e.getBlock().getLocation();
         Faction at = getFactionByWorld(loc.getWorld());
         if (at == null) {
-            String owner = getFactionAt(e.getBlock().getChunk());
+            Faction owner = getFactionAt(e.getBlock().getChunk());
             if (owner == null) return;
-            if (pf == null || !owner.equalsIgnoreCase(pf.name)) { e.setCancelled(true); pl.sendMessage(ChatColor.RED + "This land is claimed by " + owner + "."); }
+            if (owner != pf) { e.setCancelled(true); pl.sendMessage(ChatColor.RED + "This land is claimed by " + owner.name + "."); }
             return;
         }
         // In faction world
-        if (!at.equals(pf)) {
+        if (at != pf) {
             // Shield prohibits enemy placements entirely
             if (isShielded(at)) { e.setCancelled(true); return; }
             // Enemies can place TNT in siege ring during active raid
-            if (e.getBlockPlaced().getType() == Material.TNT && isRaidActive(at.name) && insideSiegeRing(at, loc)) return;
+            if (e.getBlockPlaced().getType() == Material.TNT && isRaidActive(at) && insideSiegeRing(at, loc)) return;
             e.setCancelled(true); return;
         }
         // members placing inside base only
@@ -235,11 +435,19 @@ public class FactionsLite extends JavaPlugin implements Listener {
 
     @EventHandler
     public void onPlayerMove(PlayerMoveEvent e) {
+        long t = perf.start();
+        handlePlayerMove(e);
+        perf.stop(Perf.Path.MOVE, t);
+    }
+    private void handlePlayerMove(PlayerMoveEvent e) {
+        Location from = e.getFrom(), to = e.getTo();
+        // head rotation / sub-block movement: the base check only depends on block x/z
+        if (to == null || (from.getBlockX() == to.getBlockX() && from.getBlockZ() == to.getBlockZ() && from.getWorld() == to.getWorld())) return;
         Player p = e.getPlayer();
         World w = p.getWorld();
         Faction at = getFactionByWorld(w);
         if (at == null) return;
-        if (!insideBaseSquare(at, e.getTo())) {
+        if (!insideBaseSquare(at, to)) {
             p.teleport(e.getFrom());
             p.sendMessage(ChatColor.GRAY + "You cannot leave your faction base.");
         }
@@ -247,6 +455,11 @@ public class FactionsLite extends JavaPlugin implements Listener {
 
     @EventHandler
     public void onExplode(EntityExplodeEvent e) {
+        long t = perf.start();
+        handleExplode(e);
+        perf.stop(Perf.Path.EXPLODE, t);
+    }
+    private void handleExplode(EntityExplodeEvent e) {
         World w = e.getLocation().getWorld();
         Faction at = getFactionByWorld(w);
         if (at == null) return;
@@ -261,54 +474,71 @@ public class FactionsLite extends JavaPlugin implements Listener {
             e.setYield(0.2f);
             // nothing to remove: let obsidian be breakable
         }
+        explosions.handle(at, e);
     }
 
     @EventHandler
     public void onInventoryClick(InventoryClickEvent e) {
-        if (!(e.getWhoClicked() instanceof Player p)) return;
-        if (!e.getView().getTitle().equals("Faction Upgrades")) return;
+        long t = perf.start();
+        handleInventoryClick(e);
+        perf.stop(Perf.Path.INVENTORY_CLICK, t);
+    }
+    private void handleInventoryClick(InventoryClickEvent e) {
+        // size first: getHolder() on block inventories builds a block state; this skips chests, hoppers and most
+        // others, but dispensers, droppers and crafters are 9 slots too and still reach the holder check
+        Inventory top = e.getInventory();
+        if (top.getSize() != UpgradeGui.SIZE || !(top.getHolder() instanceof UpgradeGui gui)) return;
         e.setCancelled(true);
-        ItemStack clicked = e.getCurrentItem(); if (clicked == null || clicked.getType() == Material.AIR) return;
-        String name = ChatColor.stripColor(clicked.getItemMeta().getDisplayName());
-        Faction f = getPlayerFaction(p); if (f == null) { p.closeInventory(); return; }
-        if (name.startsWith("Speed")) { if (f.speedLevel < 3) f.speedLevel++; p.sendMessage(ChatColor.GREEN + "Speed upgraded to " + f.speedLevel); }
-        else if (name.startsWith("Damage")) { if (f.damageLevel < 3) f.damageLevel++; p.sendMessage(ChatColor.GREEN + "Damage upgraded to " + f.damageLevel); }
-        else if (name.startsWith("Hearts")) { if (f.heartsLevel < 3) f.heartsLevel++; p.sendMessage(ChatColor.GREEN + "Hearts upgraded to " + f.heartsLevel); }
-        saveData();
-        openUpgradeGui(p, f);
-        applyBuffsIfInFactionWorld(p);
+        if (!(e.getWhoClicked() instanceof Player p)) return;
+        Faction f = gui.faction;
+        if (getPlayerFaction(p) != f) { p.closeInventory(); return; }
+        UpgradeGui.Upgrade u = e.getClickedInventory() == top ? UpgradeGui.at(e.getSlot()) : null;
+        if (u == null) return;
+        int level = u.level(f);
+        if (level >= UpgradeGui.MAX_LEVEL) { p.sendMessage(ChatColor.YELLOW + u.label + " is already at the max level."); return; }
+        u.setLevel(f, level + 1);
+        gui.render(u);
+        p.sendMessage(ChatColor.GREEN + u.label + " upgraded to " + (level + 1));
+        commitUpgradeLater(f);
     }
 
     private void openUpgradeGui(Player p, Faction f) {
-        Inventory inv = Bukkit.createInventory(null, 9, "Faction Upgrades");
-        inv.setItem(2, upgradeItem(Material.SUGAR, ChatColor.AQUA + "Speed (" + f.speedLevel + "/3)", List.of("Move faster in your base")));
-        inv.setItem(4, upgradeItem(Material.IRON_SWORD, ChatColor.RED + "Damage (" + f.damageLevel + "/3)", List.of("Deal more damage in your base")));
-        inv.setItem(6, upgradeItem(Material.REDSTONE, ChatColor.GOLD + "Hearts (" + f.heartsLevel + "/3)", List.of("Extra max health in your base")));
-        p.openInventory(inv);
-    }
-    private ItemStack upgradeItem(Material mat, String name, List<String> lore) {
-        ItemStack is = new ItemStack(mat);
-        ItemMeta im = is.getItemMeta();
-        im.setDisplayName(name);
-        im.setLore(lore.stream().map(s -> ChatColor.GRAY + s).collect(Collectors.toList()));
-        im.addItemFlags(ItemFlag.HIDE_ATTRIBUTES);
-        is.setItemMeta(im);
-        return is;
-    }
-
-    private void applyBuffsIfInFactionWorld(Player p) {
-        Faction f = getPlayerFaction(p); if (f == null) return;
-        if (getFactionByWorld(p.getWorld()) != f) return;
-        if (f.speedLevel > 0) p.addPotionEffect(new org.bukkit.potion.PotionEffect(org.bukkit.potion.PotionEffectType.SPEED, 220, f.speedLevel-1, true, false, false));
-        if (f.damageLevel > 0) p.addPotionEffect(new org.bukkit.potion.PotionEffect(org.bukkit.potion.PotionEffectType.INCREASE_DAMAGE, 220, f.damageLevel-1, true, false, false));
-        var attr = p.getAttribute(Attribute.GENERIC_MAX_HEALTH);
-        if (attr != null) {
-            double base = 20.0, extra = f.heartsLevel * 2.0;
-            if (attr.getBaseValue() != base + extra) {
-                attr.setBaseValue(base + extra);
-                if (p.getHealth() > attr.getBaseValue()) p.setHealth(attr.getBaseValue());
-            }
+        if (f.upgradeGui == null) f.upgradeGui = new UpgradeGui(f);
+        p.openInventory(f.upgradeGui.getInventory());
+    }
+
+    /** Level changes are shown at once; persisting them and refreshing buffs happens once per tick for all of them. */
+    void commitUpgradeLater(Faction f) {
+        if (upgraded.isEmpty()) getServer().getScheduler().runTask(this, this::commitUpgrades);
+        upgraded.add(f);
+    }
+    private void commitUpgrades() {
+        for (Faction f : upgraded) {
+            markDirty(f);
+            if (f.world != null) for (Player member : f.world.getPlayers()) buffs.update(member);
         }
+        upgraded.clear();
+    }
+
+    /** Rolls the perf window and appends it to perf.csv off the main thread. */
+    private void exportPerf() {
+        if (!perf.enabled()) return;
+        var stats = perf.roll();
+        if (stats.isEmpty()) return;
+        File out = new File(getDataFolder(), "perf.csv");
+        long now = System.currentTimeMillis();
+        getServer().getScheduler().runTaskAsynchronously(this, () -> {
+            StringBuilder sb = new StringBuilder();
+            if (!out.exists()) sb.append("timestamp,path,calls,calls_per_sec,p50_us,p99_us,max_us,total_ms\n");
+            for (Perf.Stats st : stats)
+                sb.append(String.format(Locale.ROOT, "%d,%s,%d,%.2f,%.2f,%.2f,%.2f,%.3f%n", now, st.path().label, st.calls(), st.callsPerSec(),
+                        st.p50Nanos() / 1000.0, st.p99Nanos() / 1000.0, st.maxNanos() / 1000.0, st.totalNanos() / 1e6));
+            try {
+                java.nio.file.Files.writeString(out.toPath(), sb, java.nio.file.StandardOpenOption.CREATE, java.nio.file.StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                getLogger().warning("Could not write perf.csv: " + e.getMessage());
+            }
+        });
     }
 
     // ===== Commands =====
@@ -326,29 +556,38 @@ public class FactionsLite extends JavaPlugin implements Listener {
                 String name = args[1];
                 if (playerFaction.containsKey(p.getUniqueId())) { p.sendMessage(color("&cYou're already in a faction.")); break; }
                 if (factionsByName.containsKey(name.toLowerCase())) { p.sendMessage(color("&cThat name is taken.")); break; }
-                Faction f = new Faction(name, name, p.getUniqueId());
+                Faction f = newFaction(name, name, p.getUniqueId());
                 f.members.add(p.getUniqueId());
                 f.createdAt = System.currentTimeMillis();
+                refreshShields(f);
                 factionsByName.put(name.toLowerCase(), f);
-                playerFaction.put(p.getUniqueId(), name);
-                // create faction world
-                WorldCreator wc = new WorldCreator(worldNameFor(name));
-                wc.environment(World.Environment.NORMAL);
-                wc.type(WorldType.NORMAL);
-                World w = Bukkit.createWorld(wc);
-                w.setGameRule(GameRule.KEEP_INVENTORY, true);
-                f.home = w.getSpawnLocation();
-                p.sendMessage(color("&aCreated faction &e" + name + "&a and its world &e" + w.getName()));
-                long newbieHrs = getConfig().getInt("shield.newbie.hours");
-                p.sendMessage(color("&7Newbie Shield active for &e" + newbieHrs + "h&7. Raids/TNT blocked in your world."));
+                playerFaction.put(p.getUniqueId(), f);
+                store.markPlayersDirty();
+                // bind a pre-generated world, or queue the old createWorld path if the pool is empty
+                World w = worldPool.claim();
+                if (w != null) {
+                    attachWorld(f, w, null);
+                    p.sendMessage(color("&aCreated faction &e" + name + "&a and its world &e" + w.getName()));
+                    buffs.update(p);
+                } else {
+                    worldPool.enqueue(f, p.getUniqueId());
+                    p.sendMessage(color("&aCreated faction &e" + name + "&a. Your world is being generated, you'll be notified when it's ready."));
+                }
+                p.sendMessage(color("&7Newbie Shield active for &e" + newbieHours + "h&7. Raids/TNT blocked in your world."));
             }
             case "base" -> {
                 Faction f = getPlayerFaction(p);
                 if (f == null) { p.sendMessage(color("&cJoin a faction first.")); break; }
-                if (f.home == null) f.home = f.baseCenter();
-                p.teleport(f.home);
-                p.sendMessage(color("&aTeleported to your faction base."));
-                applyBuffsIfInFactionWorld(p);
+                if (f.world == null) p.sendMessage(color("&7Loading your faction world..."));
+                worldLifecycle.load(f, () -> {
+                    if (!p.isOnline()) return;
+                    Location c = f.baseCenter();
+                    if (f.home == null && c != null) setHome(f, c);
+                    if (f.home == null) { p.sendMessage(color("&eYour faction world is still being generated.")); return; }
+                    p.teleport(f.home);
+                    p.sendMessage(color("&aTeleported to your faction base."));
+                    buffs.update(p);
+                });
             }
             case "raid" -> {
                 if (args.length < 2) { p.sendMessage(color("&eUsage: /f raid <faction>")); break; }
@@ -356,16 +595,17 @@ public class FactionsLite extends JavaPlugin implements Listener {
                 Faction tf = factionsByName.get(target);
                 Faction pf = getPlayerFaction(p);
                 if (tf == null) { p.sendMessage(color("&cNo such faction.")); break; }
-                if (pf != null && pf.name.equalsIgnoreCase(tf.name)) { p.sendMessage(color("&cYou cannot raid your own faction.")); break; }
+                if (pf == tf) { p.sendMessage(color("&cYou cannot raid your own faction.")); break; }
                 if (hasNewbieShield(tf)) { p.sendMessage(color("&cThat faction is under Newbie Shield. Try later.")); break; }
                 long dur = getConfig().getInt("raid.duration.seconds") * 1000L;
-                activeRaids.put(tf.name.toLowerCase(), System.currentTimeMillis() + dur);
+                startRaid(tf, System.currentTimeMillis() + dur);
+                worldLifecycle.load(tf, null);
                 Bukkit.broadcastMessage(color("&c&lRAID &7> &e" + p.getName() + " &7started a raid on &c" + tf.name + "&7! (&e" + (dur/1000) + "s&7)"));
             }
             case "defend" -> {
                 Faction f = getPlayerFaction(p);
                 if (f == null) { p.sendMessage(color("&cJoin a faction first.")); break; }
-                if (!isRaidActive(f.name)) { p.sendMessage(color("&eYou can only use /f defend while being raided.")); break; }
+                if (!isRaidActive(f)) { p.sendMessage(color("&eYou can only use /f defend while being raided.")); break; }
                 long now = System.currentTimeMillis();
                 if (now < f.defendCooldownUntil) {
                     long sec = (f.defendCooldownUntil - now + 999)/1000;
@@ -374,9 +614,10 @@ public class FactionsLite extends JavaPlugin implements Listener {
                 }
                 long dur = getConfig().getInt("shield.defend.duration.seconds") * 1000L;
                 long cd  = getConfig().getInt("shield.defend.cooldown.seconds") * 1000L;
-                f.defendUntil = now + dur;
+                startDefend(f, now + dur);
                 f.defendCooldownUntil = now + cd;
-                saveData();
+                markDirty(f);
+                defendTask.track(f);
                 Bukkit.broadcastMessage(color("&a&lDEFEND &7> Faction &a" + f.name + " &7activated Defend for &e" + (dur/1000) + "s&7!"));
             }
             case "upgrades" -> {
@@ -384,16 +625,50 @@ public class FactionsLite extends JavaPlugin implements Listener {
                 if (f == null) { p.sendMessage(color("&cJoin a faction first.")); break; }
                 openUpgradeGui(p, f);
             }
+            case "reload" -> {
+                if (!p.hasPermission("factionslite.admin")) { p.sendMessage(color("&cNo permission.")); break; }
+                reloadConfig();
+                addConfigDefaults(); // reloadConfig() drops them and the jar has no config.yml to fall back on
+                readSettings();
+                for (Faction f : factionsByName.values()) { rebuildBounds(f); refreshShields(f); }
+                // the tasks built in onEnable keep the values they were created with
+                p.sendMessage(color("&aFactionsLite config reloaded. &7Applied now: faction.base.*, shield.newbie.hours, "
+                        + "raid.duration.seconds, shield.defend.duration/cooldown."));
+                p.sendMessage(color("&7Restart to apply: worlds.*, raid.explosions.*, shield.defend.tick-budget-ms, storage.*, perf.*."));
+            }
+            case "export" -> {
+                if (!p.hasPermission("factionslite.admin")) { p.sendMessage(color("&cNo permission.")); break; }
+                File out = new File(getDataFolder(), "data-export.yml");
+                store.export(new YamlStorage(), out, () -> p.sendMessage(color("&aExported faction data to &e" + out.getName())));
+            }
+            case "raidstats" -> {
+                if (!p.hasPermission("factionslite.admin")) { p.sendMessage(color("&cNo permission.")); break; }
+                if (explosions.raids().isEmpty()) { p.sendMessage(color("&7No explosions in faction worlds right now.")); break; }
+                p.sendMessage(color("&6&lRaid explosions &7(last second)"));
+                for (RaidExplosions.Raid r : explosions.raids())
+                    p.sendMessage(color(String.format("&e%s&7: %.0f expl/s, %.0f deferred/s, %.3f ms/tick, %d blocks queued",
+                            r.faction.name, r.explosionsPerSec, r.deferredPerSec, r.msPerTick, r.deferredSize)));
+            }
+            case "perf" -> {
+                if (!p.hasPermission("factionslite.admin")) { p.sendMessage(color("&cNo permission.")); break; }
+                if (args.length > 1 && (args[1].equalsIgnoreCase("on") || args[1].equalsIgnoreCase("off"))) {
+                    perf.setEnabled(args[1].equalsIgnoreCase("on"));
+                    p.sendMessage(color("&7Perf timings " + (perf.enabled() ? "&aenabled" : "&cdisabled") + "&7."));
+                    break;
+                }
+                if (!perf.enabled()) { p.sendMessage(color("&7Perf timings are off. Use &e/f perf on&7.")); break; }
+                var stats = perf.window();
+                if (stats.isEmpty()) { p.sendMessage(color("&7No timings recorded yet.")); break; }
+                p.sendMessage(color("&6&lFactionsLite perf &7(current window, us)"));
+                for (Perf.Stats st : stats)
+                    p.sendMessage(color(String.format("&e%s&7: %.1f/s  p50 %.1f  p99 %.1f  max %.1f",
+                            st.path().label, st.callsPerSec(), st.p50Nanos() / 1000.0, st.p99Nanos() / 1000.0, st.maxNanos() / 1000.0)));
+            }
             default -> p.sendMessage(color("&eUnknown subcommand. Use /f help"));
         }
         return true;
     }
 
-    private boolean isRaidActive(String targetFaction) {
-        Long end = activeRaids.get(targetFaction.toLowerCase());
-        return end != null && System.currentTimeMillis() < end;
-    }
-
     private void help(Player p) {
         p.sendMessage(color("&6&lFactionsLite &7- Commands"));
         p.sendMessage(color("&e/f create <name>&7 - Create faction + world (newbie shield active)"));
@@ -401,29 +676,61 @@ public class FactionsLite extends JavaPlugin implements Listener {
         p.sendMessage(color("&e/f raid <faction>&7 - Start a raid (enables TNT ring)"));
         p.sendMessage(color("&e/f defend&7 - Activate temporary defend shield (during raid)"));
         p.sendMessage(color("&e/f upgrades&7 - Open faction upgrades GUI"));
+        if (p.hasPermission("factionslite.admin")) {
+            p.sendMessage(color("&e/f reload&7 - Reload config (admin)"));
+            p.sendMessage(color("&e/f export&7 - Dump faction data to data-export.yml (admin)"));
+            p.sendMessage(color("&e/f raidstats&7 - Explosion rate and cost per raided world (admin)"));
+            p.sendMessage(color("&e/f perf [on|off]&7 - Hot-path timings (admin)"));
+        }
         p.sendMessage(color("&7Config: shield.newbie.hours, shield.defend.duration.seconds, shield.defend.cooldown.seconds"));
     }
 
     // ===== data classes =====
     static class Faction {
+        final int id; // dense, see newFaction()
         final String name;
         String tag;
         UUID owner;
         Set<UUID> members = new HashSet<>();
         Set<UUID> invites = new HashSet<>();
         Set<ChunkPos> claims = new HashSet<>();
-        Location home;
+        String worldName; // "f_<name>", or the pool world it was bound to
+        Location home;       // only while the world is loaded
+        FactionRecord.Home homeData; // persisted home, kept while the world is unloaded
+        World world; // loaded faction world, kept by bindWorld()/onWorldUnload()
+        Bounds bounds; // derived from baseCenter() + base config, see rebuildBounds()
         int speedLevel = 0, damageLevel = 0, heartsLevel = 0;
         long createdAt = System.currentTimeMillis();
         long defendUntil = 0L;
         long defendCooldownUntil = 0L;
+        long raidEnd; // valid while raidActive
+        boolean newbieShield, defending, raidActive; // cached by refreshShields()/startRaid()/startDefend(), cleared by onExpired()
+        FactionSnapshot.FactionInfo published; // last info published for this faction, see SnapshotPublisher
+        UpgradeGui upgradeGui; // created by the first /f upgrades, shared by every member viewing it
 
-        Faction(String name, String tag, UUID owner) { this.name = name; this.tag = tag; this.owner = owner; }
+        Faction(int id, String name, String tag, UUID owner) { this.id = id; this.name = name; this.tag = tag; this.owner = owner; this.worldName = "f_" + name.toLowerCase(); }
+        FactionRecord snapshot() {
+            return new FactionRecord(name, tag, worldName, owner, List.copyOf(members), homeData, List.copyOf(claims),
+                    speedLevel, damageLevel, heartsLevel, createdAt, defendUntil, defendCooldownUntil);
+        }
         Location baseCenter() {
             if (home != null) return home;
-            World w = Bukkit.getWorld("f_" + name.toLowerCase());
-            return w == null ? null : w.getSpawnLocation();
+            return world == null ? null : world.getSpawnLocation();
+        }
+    }
+    /** Immutable base square and siege-ring outer square around a base center, in block coordinates. */
+    static final class Bounds {
+        final UUID world;
+        final int minX, maxX, minZ, maxZ;         // base square (inclusive)
+        final int outMinX, outMaxX, outMinZ, outMaxZ; // base + buffer (inclusive)
+        Bounds(UUID world, int cx, int cz, int half, int outerHalf) {
+            this.world = world;
+            minX = cx - half; maxX = cx + half; minZ = cz - half; maxZ = cz + half;
+            outMinX = cx - outerHalf; outMaxX = cx + outerHalf; outMinZ = cz - outerHalf; outMaxZ = cz + outerHalf;
         }
+        boolean inBase(int x, int z) { return x >= minX && x <= maxX && z >= minZ && z <= maxZ; }
+        boolean inOuter(int x, int z) { return x >= outMinX && x <= outMaxX && z >= outMinZ && z <= outMaxZ; }
+        boolean inRing(int x, int z) { return inOuter(x, z) && !inBase(x, z); }
     }
     static class ChunkPos {
         final String world; final int x; final int z;
@@ -0,0 +1,54 @@
+package com.example.factionslite;
+
+import java.util.Arrays;
+
+/** Open-addressing set of primitive longs; add never allocates once sized. Not thread-safe. */
+final class LongHashSet {
+    private static final long EMPTY = 0L; // key 0 is tracked separately in hasZero
+    private long[] keys;
+    private boolean hasZero;
+    private int size, mask, resizeAt;
+
+    LongHashSet() { this(16); }
+    LongHashSet(int expected) {
+        int cap = 16;
+        while (cap * 0.6f <= expected) cap <<= 1;
+        alloc(cap);
+    }
+
+    /** @return true if the key was not present yet */
+    boolean add(long key) {
+        if (key == EMPTY) {
+            if (hasZero) return false;
+            hasZero = true; size++; return true;
+        }
+        int i = slot(key);
+        for (long k; (k = keys[i]) != EMPTY; i = (i + 1) & mask) if (k == key) return false;
+        keys[i] = key;
+        if (++size >= resizeAt) rehash(keys.length << 1);
+        return true;
+    }
+
+    void clear() {
+        if (size == 0) return;
+        Arrays.fill(keys, EMPTY); hasZero = false; size = 0;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void rehash(int capacity) {
+        long[] old = keys;
+        alloc(capacity);
+        for (long k : old) {
+            if (k == EMPTY) continue;
+            int i = slot(k);
+            while (keys[i] != EMPTY) i = (i + 1) & mask;
+            keys[i] = k;
+        }
+    }
+
+    private void alloc(int capacity) { keys = new long[capacity]; mask = capacity - 1; resizeAt = (int) (capacity * 0.6f); }
+}
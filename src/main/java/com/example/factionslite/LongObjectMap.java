@@ -0,0 +1,91 @@
+package com.example.factionslite;
+
+import java.util.function.Function;
+
+/**
+ * Open-addressing hash map with primitive {@code long} keys. Lookups never allocate,
+ * which is what the hot event paths need. A slot is empty when its value is null, so
+ * null values are not supported. Entries are never removed: claims are only added while
+ * loading, and snapshots build new maps through {@link #mapValues}. Not thread-safe.
+ */
+final class LongObjectMap<V> {
+    private long[] keys;
+    private Object[] values;
+    private int size, mask, resizeAt;
+
+    LongObjectMap() { this(16); }
+    LongObjectMap(int expected) { alloc(capacityFor(expected)); }
+    private LongObjectMap(long[] keys, Object[] values, int size) {
+        this.keys = keys; this.values = values; this.size = size;
+        mask = keys.length - 1; resizeAt = (int) (keys.length * 0.6f);
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        int i = slot(key);
+        Object v;
+        while ((v = values[i]) != null) {
+            if (keys[i] == key) return (V) v;
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    V put(long key, V value) {
+        if (value == null) throw new IllegalArgumentException("null value");
+        int i = slot(key);
+        Object v;
+        while ((v = values[i]) != null) {
+            if (keys[i] == key) { values[i] = value; return (V) v; }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key; values[i] = value;
+        if (++size >= resizeAt) rehash(values.length << 1);
+        return null;
+    }
+
+    V putIfAbsent(long key, V value) {
+        V cur = get(key);
+        if (cur != null) return cur;
+        put(key, value);
+        return null;
+    }
+
+    /** Copy with the same keys and every value mapped through fn (which must not return null); no rehashing. */
+    <R> LongObjectMap<R> mapValues(Function<? super V, ? extends R> fn) {
+        Object[] mapped = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            @SuppressWarnings("unchecked") V v = (V) values[i];
+            if (v != null) mapped[i] = fn.apply(v);
+        }
+        return new LongObjectMap<>(keys.clone(), mapped, size);
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys; Object[] oldValues = values;
+        alloc(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            Object v = oldValues[i];
+            if (v == null) continue;
+            int j = slot(oldKeys[i]);
+            while (values[j] != null) j = (j + 1) & mask;
+            keys[j] = oldKeys[i]; values[j] = v;
+        }
+    }
+
+    private void alloc(int capacity) {
+        keys = new long[capacity]; values = new Object[capacity];
+        mask = capacity - 1; resizeAt = (int) (capacity * 0.6f);
+    }
+
+    private static int capacityFor(int expected) {
+        int cap = Integer.highestOneBit(Math.max(4, (int) (expected / 0.6f) + 1) - 1) << 1;
+        return Math.max(16, cap);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.factionslite;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Low-overhead timings for the plugin's hot paths.
+ * <p>
+ * Usage: {@code long t = perf.start(); ...; perf.stop(Perf.Path.MOVE, t);}. When disabled,
+ * start() returns 0 and stop() returns on that, so the cost is one field read and one branch.
+ * When enabled, each call records into a per-path log-linear histogram (HDR style: 8
+ * sub-buckets per power of two, so quantiles are within 12.5%). The histograms use atomic
+ * counters, so paths timed on the save thread are safe to record. Windows are rolled by
+ * {@link #roll()}, which the CSV export does on its own interval.
+ */
+final class Perf {
+    enum Path {
+        MOVE("onPlayerMove"), BLOCK_BREAK("onBlockBreak"), BLOCK_PLACE("onBlockPlace"), EXPLODE("onExplode"),
+        INVENTORY_CLICK("onInventoryClick"), BUFF_TICK("buffTick"), DEFEND_TICK("defendTick"),
+        SAVE_SNAPSHOT("saveSnapshot"), SAVE_WRITE("saveWrite"), LOAD("loadData"), WORLD_CREATE("worldCreate");
+
+        final String label;
+        Path(String label) { this.label = label; }
+    }
+
+    record Stats(Path path, long calls, double callsPerSec, long p50Nanos, long p99Nanos, long maxNanos, long totalNanos) {}
+
+    private static final int SUB_BITS = 3, SUB = 1 << SUB_BITS, MAX_EXP = 44; // up to 2^44 ns (~4.9 h)
+
+    private static final class Histogram {
+        final AtomicLongArray buckets = new AtomicLongArray((MAX_EXP + 1) * SUB);
+        final AtomicLong total = new AtomicLong(), max = new AtomicLong();
+    }
+
+    private volatile boolean enabled;
+    private final Histogram[] histograms = new Histogram[Path.values().length];
+    private volatile long windowStart = System.nanoTime();
+
+    Perf(boolean enabled) {
+        this.enabled = enabled;
+        for (int i = 0; i < histograms.length; i++) histograms[i] = new Histogram();
+    }
+
+    boolean enabled() { return enabled; }
+    void setEnabled(boolean enabled) {
+        if (enabled && !this.enabled) roll(); // fresh window: the old one would span the time perf was off
+        this.enabled = enabled;
+    }
+
+    long start() { return enabled ? System.nanoTime() : 0L; }
+
+    void stop(Path path, long start) {
+        if (start == 0L) return;
+        record(path, System.nanoTime() - start);
+    }
+
+    void record(Path path, long nanos) {
+        Histogram h = histograms[path.ordinal()];
+        h.buckets.incrementAndGet(bucket(nanos));
+        h.total.addAndGet(nanos);
+        long m;
+        while (nanos > (m = h.max.get()) && !h.max.compareAndSet(m, nanos)) { /* retry */ }
+    }
+
+    /** Stats for the current window, without resetting it (paths with no calls are left out). */
+    List<Stats> window() { return collect(false); }
+
+    /** Stats for the current window, then starts a new one. */
+    List<Stats> roll() { return collect(true); }
+
+    private List<Stats> collect(boolean reset) {
+        long now = System.nanoTime();
+        double secs = Math.max(1e-9, (now - windowStart) / 1e9);
+        if (reset) windowStart = now;
+        List<Stats> out = new ArrayList<>();
+        long[] counts = new long[(MAX_EXP + 1) * SUB];
+        for (Path p : Path.values()) {
+            Histogram h = histograms[p.ordinal()];
+            long n = 0;
+            for (int i = 0; i < counts.length; i++) { counts[i] = reset ? h.buckets.getAndSet(i, 0) : h.buckets.get(i); n += counts[i]; }
+            long total = reset ? h.total.getAndSet(0) : h.total.get();
+            long max = reset ? h.max.getAndSet(0) : h.max.get();
+            if (n == 0) continue;
+            out.add(new Stats(p, n, n / secs, quantile(counts, n, 0.50), quantile(counts, n, 0.99), max, total));
+        }
+        return out;
+    }
+
+    private static long quantile(long[] counts, long n, double q) {
+        long rank = (long) Math.ceil(q * n), seen = 0;
+        for (int i = 0; i < counts.length; i++) if ((seen += counts[i]) >= rank) return upperBound(i);
+        return upperBound(counts.length - 1);
+    }
+
+    // values below SUB ns map 1:1; above that, the top SUB_BITS bits after the leading one pick the sub-bucket
+    private static int bucket(long v) {
+        if (v < SUB) return (int) Math.max(0, v);
+        int exp = 63 - Long.numberOfLeadingZeros(v);
+        if (exp > MAX_EXP) return (MAX_EXP + 1) * SUB - 1;
+        int sub = (int) (v >>> (exp - SUB_BITS)) & (SUB - 1);
+        return (exp - SUB_BITS + 1) * SUB + sub;
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB) return bucket;
+        int exp = bucket / SUB + SUB_BITS - 1, sub = bucket % SUB;
+        return ((long) (SUB + sub + 1) << (exp - SUB_BITS)) - 1;
+    }
+}
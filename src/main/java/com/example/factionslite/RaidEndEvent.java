@@ -0,0 +1,18 @@
+package com.example.factionslite;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+/** Fired on the main thread when a raid on a faction runs out. */
+public class RaidEndEvent extends Event {
+    private static final HandlerList HANDLERS = new HandlerList();
+    private final String faction;
+
+    public RaidEndEvent(String faction) { this.faction = faction; }
+
+    /** Name of the faction that was being raided. */
+    public String getFaction() { return faction; }
+
+    @Override public HandlerList getHandlers() { return HANDLERS; }
+    public static HandlerList getHandlerList() { return HANDLERS; }
+}
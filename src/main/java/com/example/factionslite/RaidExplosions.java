@@ -0,0 +1,144 @@
+package com.example.factionslite;
+
+import com.example.factionslite.FactionsLite.Bounds;
+import com.example.factionslite.FactionsLite.Faction;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.TNTPrimed;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Explosion handling for unshielded faction worlds (TNT-cannon raids).
+ * <p>
+ * Each explosion's block list is first cut down to the faction's base + siege ring
+ * ({@link Bounds#inOuter}); nothing outside it can be built or reached. The first
+ * {@code perTick} explosions per faction world per tick then go through unchanged. Past that
+ * budget, an explosion keeps its blast but its blocks are merged into a deduplicated deferred
+ * set, which {@link #run()} breaks over the following ticks at up to {@code blocksPerTick}
+ * blocks per world, the way the explosion would have: TNT is primed, containers (any interactable
+ * block) break naturally so their contents drop, other blocks drop at the TNT yield. A block
+ * that is no longer the one the explosion hit (broken or replaced since) is skipped, and so is
+ * one in a chunk that has been unloaded. Deferred blocks are dropped when the faction's shield
+ * comes up or its raid ends before they are broken. Per-world explosions/sec and ms/tick are rolled up once a second.
+ */
+final class RaidExplosions extends BukkitRunnable {
+    private final int perTick, blocksPerTick;
+    private final Map<Faction, Raid> raids = new HashMap<>();
+    private long tick;
+
+    static final class Raid {
+        final Faction faction;
+        final LongHashSet queued = new LongHashSet(256); // dedup for deferred
+        long[] deferred = new long[256];
+        Material[] types = new Material[256]; // type each deferred block had when the explosion hit it
+        int deferredSize;
+        long tick;            // tick the counter below belongs to
+        int explosionsThisTick;
+        // current window / last completed window (1 s)
+        long windowExplosions, windowNanos, windowDeferred;
+        double explosionsPerSec, msPerTick, deferredPerSec;
+        Raid(Faction faction) { this.faction = faction; }
+    }
+
+    RaidExplosions(int perTick, int blocksPerTick) { this.perTick = perTick; this.blocksPerTick = blocksPerTick; }
+
+    /** Called for explosions in f's world once the shield check has passed. */
+    void handle(Faction f, EntityExplodeEvent e) {
+        long start = System.nanoTime();
+        Raid r = raids.get(f);
+        if (r == null) raids.put(f, r = new Raid(f));
+        if (r.tick != tick) { r.tick = tick; r.explosionsThisTick = 0; }
+        r.windowExplosions++;
+
+        List<Block> blocks = e.blockList();
+        Bounds b = f.bounds;
+        if (b != null) blocks.removeIf(bl -> !b.inOuter(bl.getX(), bl.getZ()));
+        if (++r.explosionsThisTick > perTick && !blocks.isEmpty()) {
+            for (Block bl : blocks) defer(r, pack(bl.getX(), bl.getY(), bl.getZ()), bl.getType());
+            r.windowDeferred++;
+            blocks.clear();
+        }
+        r.windowNanos += System.nanoTime() - start;
+    }
+
+    /** Drops state for a faction whose raid ended, including deferred blocks not broken yet. */
+    void forget(Faction f) {
+        Raid r = raids.remove(f);
+        if (r != null) drop(r);
+    }
+
+    Collection<Raid> raids() { return raids.values(); }
+
+    @Override
+    public void run() {
+        tick++;
+        boolean roll = tick % 20 == 0;
+        for (Iterator<Raid> it = raids.values().iterator(); it.hasNext(); ) {
+            Raid r = it.next();
+            if (r.deferredSize > 0) {
+                long start = System.nanoTime();
+                drain(r);
+                r.windowNanos += System.nanoTime() - start;
+            }
+            if (!roll) continue;
+            r.explosionsPerSec = r.windowExplosions;
+            r.deferredPerSec = r.windowDeferred;
+            r.msPerTick = r.windowNanos / 20 / 1_000_000.0;
+            r.windowExplosions = r.windowNanos = r.windowDeferred = 0;
+            if (r.explosionsPerSec == 0 && r.deferredSize == 0 && !r.faction.raidActive) it.remove();
+        }
+    }
+
+    private void drain(Raid r) {
+        Faction f = r.faction;
+        World w = f.world;
+        // world unloaded, or a shield came up since the explosions: as if they had been cancelled then
+        if (w == null || f.newbieShield || f.defending) { drop(r); return; }
+        float yield = 0.2f; // same yield onExplode sets for TNT
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        for (int n = 0; n < blocksPerTick && r.deferredSize > 0; n++) {
+            long pos = r.deferred[--r.deferredSize];
+            Material hit = r.types[r.deferredSize];
+            r.types[r.deferredSize] = null;
+            int x = unpackX(pos), y = unpackY(pos), z = unpackZ(pos);
+            if (!w.isChunkLoaded(x >> 4, z >> 4)) continue; // getBlockAt would load it
+            Block bl = w.getBlockAt(x, y, z);
+            Material type = bl.getType();
+            if (type != hit || type == Material.AIR) continue;
+            if (type == Material.TNT) {
+                bl.setType(Material.AIR);
+                TNTPrimed tnt = w.spawn(new Location(w, x + 0.5, y, z + 0.5), TNTPrimed.class);
+                tnt.setFuseTicks(10 + rnd.nextInt(20)); // vanilla fuse for TNT set off by an explosion
+            } else if (type.isInteractable() || rnd.nextFloat() < yield) {
+                bl.breakNaturally(); // setType(AIR) would delete a container's block entity with its contents
+            } else {
+                bl.setType(Material.AIR);
+            }
+        }
+        if (r.deferredSize == 0) r.queued.clear();
+    }
+
+    private static void drop(Raid r) { Arrays.fill(r.types, 0, r.deferredSize, null); r.deferredSize = 0; r.queued.clear(); }
+
+    private static void defer(Raid r, long pos, Material type) {
+        if (!r.queued.add(pos)) return;
+        if (r.deferredSize == r.deferred.length) {
+            r.deferred = Arrays.copyOf(r.deferred, r.deferredSize << 1);
+            r.types = Arrays.copyOf(r.types, r.deferredSize << 1);
+        }
+        r.types[r.deferredSize] = type;
+        r.deferred[r.deferredSize++] = pos;
+    }
+
+    // 26 bits x, 26 bits z, 12 bits y (same split as vanilla BlockPos.asLong)
+    static long pack(int x, int y, int z) { return ((long) x & 0x3FFFFFF) << 38 | ((long) z & 0x3FFFFFF) << 12 | (y & 0xFFF); }
+    static int unpackX(long p) { return (int) (p >> 38); }
+    static int unpackY(long p) { return (int) (p << 52 >> 52); }
+    static int unpackZ(long p) { return (int) (p << 26 >> 38); }
+}
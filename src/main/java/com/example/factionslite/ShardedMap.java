@@ -0,0 +1,70 @@
+package com.example.factionslite;
+
+import java.util.*;
+
+/**
+ * Immutable hash map split into {@link #SHARDS} plain maps by key hash, for the maps of a
+ * published {@link FactionSnapshot}. {@link #edit()} starts the next version: the editor copies
+ * a shard on its first write and shares every other shard with this map, so a change costs the
+ * shards it touches (about size / SHARDS entries each) instead of the whole map. Null keys and
+ * values are not supported. Safe to read from any thread once published.
+ */
+final class ShardedMap<K, V> {
+    static final int SHARDS = 128;
+    private static final ShardedMap<?, ?> EMPTY = new ShardedMap<>(emptyShards(), 0);
+
+    private final Map<K, V>[] shards;
+    private final int size;
+
+    private ShardedMap(Map<K, V>[] shards, int size) { this.shards = shards; this.size = size; }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> ShardedMap<K, V> empty() { return (ShardedMap<K, V>) EMPTY; }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <K, V> Map<K, V>[] emptyShards() {
+        Map<K, V>[] s = new Map[SHARDS];
+        Arrays.fill(s, Map.of());
+        return s;
+    }
+
+    private static int shard(Object key) { int h = key.hashCode(); return (h ^ h >>> 16) & (SHARDS - 1); }
+
+    V get(Object key) { return shards[shard(key)].get(key); }
+
+    int size() { return size; }
+
+    /** Read-only view of all values. */
+    Collection<V> values() {
+        return new AbstractCollection<>() {
+            @Override public int size() { return size; }
+            @Override public Iterator<V> iterator() { return Arrays.stream(shards).flatMap(m -> m.values().stream()).iterator(); }
+        };
+    }
+
+    Editor<K, V> edit() { return new Editor<>(this); }
+
+    /** Copy-on-write changes to a ShardedMap; not thread-safe, and done once {@link #build()} is called. */
+    static final class Editor<K, V> {
+        private final Map<K, V>[] shards;
+        private final boolean[] copied = new boolean[SHARDS];
+        private int size;
+
+        private Editor(ShardedMap<K, V> from) { shards = from.shards.clone(); size = from.size; }
+
+        private Map<K, V> writable(int i) {
+            if (!copied[i]) { shards[i] = new HashMap<>(shards[i]); copied[i] = true; }
+            return shards[i];
+        }
+
+        void put(K key, V value) { if (writable(shard(key)).put(key, value) == null) size++; }
+
+        /** Removes key only while it still maps to value. */
+        void remove(Object key, Object value) {
+            int i = shard(key);
+            if (value.equals(shards[i].get(key)) && writable(i).remove(key, value)) size--;
+        }
+
+        ShardedMap<K, V> build() { return new ShardedMap<>(shards, size); }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.factionslite;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+/** Fired on the main thread when a faction's newbie shield or defend shield runs out. */
+public class ShieldDownEvent extends Event {
+    public enum Shield { NEWBIE, DEFEND }
+
+    private static final HandlerList HANDLERS = new HandlerList();
+    private final String faction;
+    private final Shield shield;
+    private final boolean stillShielded;
+
+    public ShieldDownEvent(String faction, Shield shield, boolean stillShielded) {
+        this.faction = faction; this.shield = shield; this.stillShielded = stillShielded;
+    }
+
+    public String getFaction() { return faction; }
+    public Shield getShield() { return shield; }
+    /** True if the faction is still covered by the other shield. */
+    public boolean isStillShielded() { return stillShielded; }
+
+    @Override public HandlerList getHandlers() { return HANDLERS; }
+    public static HandlerList getHandlerList() { return HANDLERS; }
+}
@@ -0,0 +1,109 @@
+package com.example.factionslite;
+
+import com.example.factionslite.FactionSnapshot.Claim;
+import com.example.factionslite.FactionSnapshot.FactionInfo;
+import com.example.factionslite.FactionsLite.ChunkPos;
+import com.example.factionslite.FactionsLite.Faction;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.*;
+
+/**
+ * Builds and publishes {@link FactionSnapshot}s. Main thread only, except {@link #current()}.
+ * <p>
+ * Mutations report the changed faction ({@link #changed}); the first report schedules one
+ * publish for the next tick. A publish
+ * rebuilds the {@link FactionInfo} of the changed factions only. The name and player maps are
+ * {@link ShardedMap}s, so only the shards holding a changed name or member are copied; the
+ * id table (one slot per faction) is copied whole. Claim maps hold faction ids, not infos, so
+ * they are rebuilt only for worlds where a changed faction gained or lost claims, not on a flag
+ * flip or an upgrade. Unchanged shards, factions, claim lists and worlds are shared with the
+ * previous snapshot.
+ */
+final class SnapshotPublisher {
+    private final JavaPlugin plugin;
+    private final Map<String, Faction> registry;   // live factionsByName
+    private final ClaimIndex claimIndex;
+    private final Set<Faction> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<String> changedWorlds = new HashSet<>();
+    private boolean scheduled;
+    private volatile FactionSnapshot current = FactionSnapshot.EMPTY;
+
+    SnapshotPublisher(JavaPlugin plugin, Map<String, Faction> registry, ClaimIndex claimIndex) {
+        this.plugin = plugin; this.registry = registry; this.claimIndex = claimIndex;
+    }
+
+    /** Latest published snapshot; any thread. */
+    FactionSnapshot current() { return current; }
+
+    void changed(Faction f) { changed.add(f); schedule(); }
+
+    // nothing is scheduled before the first publish (loading), which covers everything anyway
+    private void schedule() {
+        if (scheduled || current == FactionSnapshot.EMPTY) return;
+        scheduled = true;
+        Bukkit.getScheduler().runTask(plugin, this::publish);
+    }
+
+    /** Publishes a snapshot of every faction now (after loading). */
+    void publishAll() {
+        changed.addAll(registry.values());
+        publish();
+    }
+
+    void publish() {
+        scheduled = false;
+        if (changed.isEmpty() && changedWorlds.isEmpty()) return;
+        FactionSnapshot prev = current;
+        ShardedMap.Editor<String, FactionInfo> byName = prev.byName.edit();
+        ShardedMap.Editor<UUID, FactionInfo> byPlayer = prev.byPlayer.edit();
+        FactionInfo[] byId = prev.byId.clone();
+        for (Faction f : changed) {
+            String key = f.name.toLowerCase();
+            FactionInfo old = f.published;
+            if (old != null) for (UUID m : old.members()) byPlayer.remove(m, old);
+            if (registry.get(key) != f) {
+                if (old != null) {
+                    byName.remove(key, old);
+                    byId[f.id] = null;
+                    for (Claim c : old.claims()) changedWorlds.add(c.world());
+                }
+                f.published = null;
+                continue;
+            }
+            List<Claim> claims = claims(f, old);
+            if (old == null || claims != old.claims()) {
+                if (old != null) for (Claim c : old.claims()) changedWorlds.add(c.world());
+                for (Claim c : claims) changedWorlds.add(c.world());
+            }
+            FactionInfo info = new FactionInfo(f.id, f.name, f.tag, f.owner, Set.copyOf(f.members), f.worldName, claims,
+                    f.newbieShield, f.defending, f.raidActive);
+            f.published = info;
+            byName.put(key, info);
+            for (UUID m : info.members()) byPlayer.put(m, info);
+            if (f.id >= byId.length) byId = Arrays.copyOf(byId, Math.max(f.id + 1, byId.length * 2));
+            byId[f.id] = info;
+        }
+        Map<String, LongObjectMap<Integer>> claims = prev.claims;
+        if (!changedWorlds.isEmpty()) {
+            claims = new HashMap<>(prev.claims);
+            for (String world : changedWorlds) {
+                LongObjectMap<Faction> live = claimIndex.worldMap(world);
+                if (live == null) claims.remove(world);
+                else claims.put(world, live.mapValues(f -> f.id));
+            }
+        }
+        changed.clear();
+        changedWorlds.clear();
+        current = new FactionSnapshot(prev.version() + 1, byName.build(), byPlayer.build(), byId, claims);
+    }
+
+    /** f's claims as a published list: old's own list if they are unchanged, so callers can compare by identity. */
+    private static List<Claim> claims(Faction f, FactionInfo old) {
+        List<Claim> claims = new ArrayList<>(f.claims.size());
+        for (ChunkPos cp : f.claims) claims.add(new Claim(cp.world, cp.x, cp.z));
+        if (old != null && old.claims().size() == claims.size() && Set.copyOf(old.claims()).containsAll(claims)) return old.claims();
+        return List.copyOf(claims);
+    }
+}
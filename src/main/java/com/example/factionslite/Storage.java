@@ -0,0 +1,14 @@
+package com.example.factionslite;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * A data file format. Implementations only see {@link StoredData}, so {@link #encode} can run
+ * on the writer thread; {@link DataStore} owns scheduling and the atomic file replacement.
+ */
+interface Storage {
+    String fileName();
+    StoredData load(File file) throws IOException;
+    byte[] encode(StoredData data) throws IOException;
+}
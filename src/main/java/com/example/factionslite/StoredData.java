@@ -0,0 +1,8 @@
+package com.example.factionslite;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/** Everything persisted to disk: faction records plus the player -> faction name table. */
+record StoredData(Collection<FactionRecord> factions, Map<UUID, String> players) {}
@@ -0,0 +1,62 @@
+package com.example.factionslite;
+
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for wall-clock deadlines. Scheduling is O(1); {@link #advance} visits
+ * only the slots for the ticks that passed, and a timer longer than one revolution is simply
+ * skipped until its own tick comes round. There is no cancel: consumers check on expiry
+ * whether the payload is still current. Not thread-safe.
+ */
+final class TimerWheel<T> {
+    private static final class Node<T> {
+        final long tick; final T payload; Node<T> next;
+        Node(long tick, T payload, Node<T> next) { this.tick = tick; this.payload = payload; this.next = next; }
+    }
+
+    private final long tickMs;
+    private final Node<T>[] slots;
+    private final int mask;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    TimerWheel(long tickMs, int slotCount, long nowMs) {
+        if (Integer.bitCount(slotCount) != 1) throw new IllegalArgumentException("slotCount must be a power of two");
+        this.tickMs = tickMs;
+        this.slots = (Node<T>[]) new Node[slotCount];
+        this.mask = slotCount - 1;
+        this.currentTick = nowMs / tickMs;
+    }
+
+    int size() { return size; }
+
+    /** Fires payload on the first {@link #advance} at or after deadlineMs (rounded up to the tick). */
+    void schedule(long deadlineMs, T payload) {
+        long tick = Math.max(currentTick + 1, (deadlineMs + tickMs - 1) / tickMs);
+        int i = (int) tick & mask;
+        slots[i] = new Node<>(tick, payload, slots[i]);
+        size++;
+    }
+
+    /** Moves the wheel to nowMs and hands every expired payload to onExpire. */
+    void advance(long nowMs, Consumer<? super T> onExpire) {
+        long target = nowMs / tickMs;
+        // after a long stall every slot is due once; visiting more than one revolution finds nothing new
+        long steps = Math.min(target - currentTick, slots.length);
+        for (long s = 0; s < steps; s++) {
+            int i = (int) (currentTick + 1 + s) & mask;
+            Node<T> prev = null, n = slots[i];
+            while (n != null) {
+                Node<T> next = n.next;
+                if (n.tick <= target) {
+                    if (prev == null) slots[i] = next; else prev.next = next;
+                    size--;
+                    onExpire.accept(n.payload);
+                } else prev = n;
+                n = next;
+            }
+        }
+        if (target > currentTick) currentTick = target;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.factionslite;
+
+import com.example.factionslite.FactionsLite.Faction;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.List;
+
+/**
+ * The /f upgrades inventory of one faction, shared by every member who has it open.
+ * <p>
+ * The click listener recognises it by this holder instead of comparing view titles, and the
+ * clicked upgrade by slot instead of parsing the display name. Slot items are built once per
+ * upgrade and level and shared by all factions; an upgrade swaps one slot of the open
+ * inventory, which every viewer sees, instead of building and reopening a new one.
+ */
+final class UpgradeGui implements InventoryHolder {
+    static final String TITLE = "Faction Upgrades";
+    static final int SIZE = 9;
+    static final int MAX_LEVEL = 3;
+
+    enum Upgrade {
+        SPEED(2, Material.SUGAR, ChatColor.AQUA, "Speed", "Move faster in your base"),
+        DAMAGE(4, Material.IRON_SWORD, ChatColor.RED, "Damage", "Deal more damage in your base"),
+        HEARTS(6, Material.REDSTONE, ChatColor.GOLD, "Hearts", "Extra max health in your base");
+
+        final int slot; final Material icon; final ChatColor color; final String label, lore;
+        Upgrade(int slot, Material icon, ChatColor color, String label, String lore) {
+            this.slot = slot; this.icon = icon; this.color = color; this.label = label; this.lore = lore;
+        }
+
+        int level(Faction f) {
+            return switch (this) { case SPEED -> f.speedLevel; case DAMAGE -> f.damageLevel; case HEARTS -> f.heartsLevel; };
+        }
+        void setLevel(Faction f, int level) {
+            switch (this) { case SPEED -> f.speedLevel = level; case DAMAGE -> f.damageLevel = level; case HEARTS -> f.heartsLevel = level; }
+        }
+    }
+
+    private static final Upgrade[] BY_SLOT = new Upgrade[SIZE];
+    static { for (Upgrade u : Upgrade.values()) BY_SLOT[u.slot] = u; }
+    private static final ItemStack[][] ITEMS = new ItemStack[Upgrade.values().length][MAX_LEVEL + 1]; // built on first use
+
+    final Faction faction;
+    private final Inventory inventory;
+
+    UpgradeGui(Faction faction) {
+        this.faction = faction;
+        this.inventory = Bukkit.createInventory(this, SIZE, TITLE);
+        for (Upgrade u : Upgrade.values()) render(u);
+    }
+
+    @Override
+    public Inventory getInventory() { return inventory; }
+
+    /** Upgrade shown in slot, or null for the empty slots. */
+    static Upgrade at(int slot) { return slot >= 0 && slot < SIZE ? BY_SLOT[slot] : null; }
+
+    /** Puts u's item for the faction's current level into its slot. */
+    void render(Upgrade u) { inventory.setItem(u.slot, item(u, Math.min(Math.max(u.level(faction), 0), MAX_LEVEL))); }
+
+    private static ItemStack item(Upgrade u, int level) {
+        ItemStack is = ITEMS[u.ordinal()][level];
+        if (is != null) return is;
+        is = new ItemStack(u.icon);
+        ItemMeta im = is.getItemMeta();
+        im.setDisplayName(u.color + u.label + " (" + level + "/" + MAX_LEVEL + ")");
+        im.setLore(List.of(ChatColor.GRAY + u.lore));
+        im.addItemFlags(ItemFlag.HIDE_ATTRIBUTES);
+        is.setItemMeta(im);
+        return ITEMS[u.ordinal()][level] = is;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.factionslite;
+
+import com.example.factionslite.FactionsLite.Faction;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.*;
+
+/**
+ * Loads faction worlds on demand and unloads idle ones, so loaded worlds follow the active
+ * factions rather than all of them.
+ * <p>
+ * {@link #load} loads the world if it is not loaded yet. It then queues the chunks within
+ * {@code warmRadius} of the base for loading, a few per tick (Spigot has no async chunk API),
+ * and runs the callback once they are in. Every {@link #IDLE_CHECK_TICKS} ticks, faction worlds
+ * with no players, no running raid and no defend are timestamped. Once such a world has been
+ * idle for {@code idleMs}, it is saved and unloaded. The home coordinates stay on the Faction,
+ * see {@code Faction.homeData}.
+ */
+final class WorldLifecycle extends BukkitRunnable {
+    private static final int IDLE_CHECK_TICKS = 200;
+
+    private final FactionsLite plugin;
+    private final long idleMs;
+    private final int warmRadius, warmPerTick;
+    private final Map<Faction, Long> idleSince = new HashMap<>();
+    private final ArrayDeque<Warm> warming = new ArrayDeque<>();
+    private long tick;
+
+    private static final class Warm {
+        final Faction faction; final World world; final int cx, cz;
+        final List<Runnable> then = new ArrayList<>();
+        int index;
+        Warm(Faction faction, World world, int cx, int cz) { this.faction = faction; this.world = world; this.cx = cx; this.cz = cz; }
+    }
+
+    WorldLifecycle(FactionsLite plugin, long idleMs, int warmRadius, int warmPerTick) {
+        this.plugin = plugin; this.idleMs = idleMs; this.warmRadius = warmRadius; this.warmPerTick = warmPerTick;
+    }
+
+    /**
+     * Makes sure f's world is loaded and warm, then runs then (immediately if it already is).
+     * If the world has never been generated (still queued in the pool), then runs right away
+     * and finds f.world null.
+     */
+    void load(Faction f, Runnable then) {
+        for (Warm w : warming) if (w.faction == f) { if (then != null) w.then.add(then); return; }
+        if (f.world == null && plugin.worldOnDisk(f.worldName))
+            plugin.createWorld(f.worldName); // loads the existing world; WorldLoadEvent binds it and resolves the home
+        Location c = f.world == null ? null : f.baseCenter();
+        if (c == null || isWarm(c)) { if (then != null) then.run(); return; }
+        Warm w = new Warm(f, f.world, c.getBlockX() >> 4, c.getBlockZ() >> 4);
+        if (then != null) w.then.add(then);
+        warming.add(w);
+    }
+
+    private boolean isWarm(Location c) { return c.getWorld().isChunkLoaded(c.getBlockX() >> 4, c.getBlockZ() >> 4); }
+
+    @Override
+    public void run() {
+        tick++;
+        Warm w = warming.peek();
+        if (w != null) {
+            int side = warmRadius * 2 + 1;
+            for (int n = 0; n < warmPerTick && w.index < side * side; n++, w.index++)
+                w.world.getChunkAt(w.cx - warmRadius + w.index % side, w.cz - warmRadius + w.index / side);
+            if (w.index >= side * side) {
+                warming.poll();
+                for (Runnable r : w.then) r.run();
+            }
+        }
+        if (tick % IDLE_CHECK_TICKS == 0) unloadIdle();
+    }
+
+    private void unloadIdle() {
+        long now = System.currentTimeMillis();
+        for (World world : Bukkit.getWorlds()) {
+            Faction f = plugin.getFactionByWorld(world);
+            if (f == null) continue;
+            if (!world.getPlayers().isEmpty() || f.raidActive || f.defending || isWarming(f)) { idleSince.remove(f); continue; }
+            Long since = idleSince.putIfAbsent(f, now);
+            if (since == null || now - since < idleMs) continue;
+            idleSince.remove(f);
+            // save = true: the unload writes the world once, no separate save()
+            if (!Bukkit.unloadWorld(world, true)) plugin.getLogger().fine("Could not unload idle faction world " + world.getName());
+        }
+    }
+
+    private boolean isWarming(Faction f) {
+        for (Warm w : warming) if (w.faction == f) return true;
+        return false;
+    }
+}
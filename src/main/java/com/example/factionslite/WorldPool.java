@@ -0,0 +1,101 @@
+package com.example.factionslite;
+
+import com.example.factionslite.FactionsLite.Faction;
+import org.bukkit.*;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.io.File;
+import java.util.*;
+
+/**
+ * Warm pool of pre-created, pre-generated faction worlds, so {@code /f create} only has to
+ * bind an existing world to the new faction.
+ * <p>
+ * Runs every tick and tops the pool up one world at a time. It first loads pool worlds left on
+ * disk from an earlier run, otherwise it creates {@code <prefix><n>}, then generates the chunks
+ * within {@code pregenRadius} of spawn, a few per tick. Creating or loading a world still blocks
+ * the main thread (Bukkit.createWorld is synchronous); the pool only moves that freeze to a quiet
+ * moment. A refill therefore starts only while at most {@code fillMaxPlayers} players are online,
+ * at least {@code fillIntervalMs} after the previous world creation, and not while the server is
+ * already behind (smoothed tick interval above {@code maxTickMs}; this catches lag, not load,
+ * as a server at 20 TPS ticks every 50 ms whatever its MSPT). When the pool is empty,
+ * {@code /f create} queues the faction instead. Queued worlds are created the old way, one per
+ * tick, whatever the load, and the requester is told when the world is ready.
+ */
+final class WorldPool extends BukkitRunnable {
+    private final FactionsLite plugin;
+    private final String prefix;
+    private final int size, pregenRadius, pregenPerTick, fillMaxPlayers;
+    private final long fillIntervalMs;
+    private final double maxTickMs;
+
+    private final ArrayDeque<World> ready = new ArrayDeque<>();
+    private final ArrayDeque<String> onDisk = new ArrayDeque<>(); // unbound pool worlds from earlier runs, not loaded yet
+    private final ArrayDeque<Pending> waiting = new ArrayDeque<>();
+    private World warming;
+    private int warmIndex; // next chunk of the (2r+1)^2 square around spawn
+    private int nextId;
+    private long lastTickNanos, lastCreateMs;
+    private double avgTickMs = 50.0;
+
+    private record Pending(Faction faction, UUID requester) {}
+
+    WorldPool(FactionsLite plugin, String prefix, int size, int pregenRadius, int pregenPerTick, double maxTickMs,
+              int fillMaxPlayers, long fillIntervalMs, Set<String> boundWorlds) {
+        this.plugin = plugin; this.prefix = prefix; this.size = size;
+        this.pregenRadius = pregenRadius; this.pregenPerTick = pregenPerTick; this.maxTickMs = maxTickMs;
+        this.fillMaxPlayers = fillMaxPlayers; this.fillIntervalMs = fillIntervalMs;
+        File[] dirs = Bukkit.getWorldContainer().listFiles(d -> d.isDirectory() && d.getName().startsWith(prefix) && new File(d, "level.dat").exists());
+        for (File d : dirs == null ? new File[0] : dirs) {
+            String name = d.getName();
+            try { nextId = Math.max(nextId, Integer.parseInt(name.substring(prefix.length())) + 1); } catch (NumberFormatException ignored) {}
+            if (boundWorlds.contains(name.toLowerCase())) continue;
+            World w = Bukkit.getWorld(name);
+            if (w != null) ready.add(w); else onDisk.add(name);
+        }
+    }
+
+    /** Takes a ready world out of the pool, or null if none is ready. */
+    World claim() { return ready.poll(); }
+
+    /**
+     * Pool was empty: create f's world on a later tick and tell the requester (if any) once it
+     * is bound. The queue is not persisted; onEnable re-queues factions whose world is missing.
+     */
+    void enqueue(Faction f, UUID requester) { waiting.add(new Pending(f, requester)); }
+
+    @Override
+    public void run() {
+        long now = System.nanoTime();
+        if (lastTickNanos != 0) avgTickMs = avgTickMs * 0.95 + (now - lastTickNanos) / 1_000_000.0 * 0.05;
+        lastTickNanos = now;
+
+        Pending p = waiting.poll();
+        if (p != null) {
+            plugin.attachWorld(p.faction(), plugin.createWorld(plugin.worldNameFor(p.faction().name)), p.requester());
+            lastCreateMs = System.currentTimeMillis();
+            return;
+        }
+        if (avgTickMs > maxTickMs) return;
+        if (warming != null) { pregen(); return; }
+        if (ready.size() >= size || Bukkit.getOnlinePlayers().size() > fillMaxPlayers) return;
+        if (System.currentTimeMillis() - lastCreateMs < fillIntervalMs) return;
+        String name = onDisk.poll();
+        if (name == null) {
+            do name = prefix + nextId++; while (new File(Bukkit.getWorldContainer(), name).exists());
+        }
+        warming = plugin.createWorld(name); // blocks this tick
+        lastCreateMs = System.currentTimeMillis();
+        warmIndex = 0;
+    }
+
+    private void pregen() {
+        int side = pregenRadius * 2 + 1;
+        Chunk spawn = warming.getSpawnLocation().getChunk();
+        for (int n = 0; n < pregenPerTick && warmIndex < side * side; n++, warmIndex++)
+            warming.getChunkAt(spawn.getX() - pregenRadius + warmIndex % side, spawn.getZ() - pregenRadius + warmIndex / side);
+        if (warmIndex < side * side) return;
+        ready.add(warming);
+        warming = null;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.factionslite;
+
+import com.example.factionslite.FactionsLite.ChunkPos;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/** data.yml (de)serialization, the original and default format. */
+final class YamlStorage implements Storage {
+
+    @Override public String fileName() { return "data.yml"; }
+
+    @Override
+    public StoredData load(File file) {
+        List<FactionRecord> factions = new ArrayList<>();
+        Map<UUID, String> players = new HashMap<>();
+        if (!file.exists()) return new StoredData(factions, players);
+        var yml = YamlConfiguration.loadConfiguration(file);
+        var sec = yml.getConfigurationSection("factions");
+        if (sec != null) {
+            for (String name : sec.getKeys(false)) {
+                String tag = sec.getString(name + ".tag", name);
+                String world = sec.getString(name + ".world", "f_" + name.toLowerCase()); // absent before world pooling
+                String ownerStr = sec.getString(name + ".owner");
+                UUID owner = ownerStr == null ? null : UUID.fromString(ownerStr);
+                List<UUID> members = new ArrayList<>();
+                for (String s : sec.getStringList(name + ".members")) members.add(UUID.fromString(s));
+                FactionRecord.Home home = null;
+                if (sec.isConfigurationSection(name + ".home")) {
+                    var hs = sec.getConfigurationSection(name + ".home");
+                    home = new FactionRecord.Home(hs.getString("world"), hs.getDouble("x"), hs.getDouble("y"), hs.getDouble("z"),
+                            (float) hs.getDouble("yaw"), (float) hs.getDouble("pitch"));
+                }
+                List<ChunkPos> claims = new ArrayList<>();
+                for (String c : sec.getStringList(name + ".claims")) {
+                    String[] p = c.split(";"); claims.add(new ChunkPos(p[0], Integer.parseInt(p[1]), Integer.parseInt(p[2])));
+                }
+                factions.add(new FactionRecord(name, tag, world, owner, members, home, claims,
+                        sec.getInt(name + ".upgrades.speed", 0),
+                        sec.getInt(name + ".upgrades.damage", 0),
+                        sec.getInt(name + ".upgrades.hearts", 0),
+                        sec.getLong(name + ".meta.createdAt", System.currentTimeMillis()),
+                        sec.getLong(name + ".meta.defendUntil", 0L),
+                        sec.getLong(name + ".meta.defendCooldownUntil", 0L)));
+            }
+        }
+        var psec = yml.getConfigurationSection("players");
+        if (psec != null) for (String uuid : psec.getKeys(false)) players.put(UUID.fromString(uuid), psec.getString(uuid));
+        return new StoredData(factions, players);
+    }
+
+    @Override
+    public byte[] encode(StoredData data) {
+        var yml = new YamlConfiguration();
+        var sec = yml.createSection("factions");
+        for (FactionRecord f : data.factions()) {
+            String base = f.name();
+            sec.set(base + ".tag", f.tag());
+            sec.set(base + ".world", f.world());
+            sec.set(base + ".owner", f.owner() == null ? null : f.owner().toString());
+            sec.set(base + ".members", f.members().stream().map(UUID::toString).collect(Collectors.toList()));
+            if (f.home() != null) {
+                var h = f.home();
+                var hs = sec.createSection(base + ".home");
+                hs.set("world", h.world());
+                hs.set("x", h.x()); hs.set("y", h.y()); hs.set("z", h.z());
+                hs.set("yaw", h.yaw()); hs.set("pitch", h.pitch());
+            }
+            List<String> claimStr = new ArrayList<>(); for (ChunkPos cp : f.claims()) claimStr.add(cp.world + ";" + cp.x + ";" + cp.z);
+            sec.set(base + ".claims", claimStr);
+            sec.set(base + ".upgrades.speed", f.speedLevel());
+            sec.set(base + ".upgrades.damage", f.damageLevel());
+            sec.set(base + ".upgrades.hearts", f.heartsLevel());
+            sec.set(base + ".meta.createdAt", f.createdAt());
+            sec.set(base + ".meta.defendUntil", f.defendUntil());
+            sec.set(base + ".meta.defendCooldownUntil", f.defendCooldownUntil());
+        }
+        var psec = yml.createSection("players");
+        for (var e : data.players().entrySet()) psec.set(e.getKey().toString(), e.getValue());
+        return yml.saveToString().getBytes(StandardCharsets.UTF_8);
+    }
+}
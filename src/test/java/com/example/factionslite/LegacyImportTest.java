@@ -0,0 +1,59 @@
+package com.example.factionslite;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** First boot on the binary backend: data.yml from before world pooling is imported into data.bin. */
+class LegacyImportTest {
+    private static final UUID OWNER = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    @TempDir File dir;
+
+    @Test
+    void factionWithoutWorldKeyGetsItsOriginalWorld() throws Exception {
+        File yml = new File(dir, "data.yml");
+        Files.writeString(yml.toPath(), String.join("\n",
+                "factions:",
+                "  Alpha:",
+                "    tag: ALP",
+                "    owner: " + OWNER,
+                "    members:",
+                "    - " + OWNER,
+                "    claims:",
+                "    - f_alpha;1;-2",
+                "    upgrades:",
+                "      speed: 2",
+                "  Beta:",
+                "    tag: BET",
+                "    world: fpool_3",
+                "players:",
+                "  " + OWNER + ": Alpha",
+                ""));
+
+        // the same path loadData() takes: YAML in, binary out, binary back in
+        StoredData legacy = new YamlStorage().load(yml);
+        BinaryStorage binary = new BinaryStorage();
+        File bin = new File(dir, binary.fileName());
+        Files.write(bin.toPath(), binary.encode(legacy));
+        StoredData data = binary.load(bin);
+
+        Map<String, FactionRecord> byName = new HashMap<>();
+        for (FactionRecord r : data.factions()) byName.put(r.name(), r);
+        FactionRecord alpha = byName.get("Alpha");
+        assertEquals("f_alpha", alpha.world());
+        assertEquals("ALP", alpha.tag());
+        assertEquals(OWNER, alpha.owner());
+        assertEquals(1, alpha.claims().size());
+        assertEquals(2, alpha.speedLevel());
+        assertEquals("fpool_3", byName.get("Beta").world());
+        assertEquals("Alpha", data.players().get(OWNER));
+    }
+}
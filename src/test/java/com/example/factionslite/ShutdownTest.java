@@ -0,0 +1,43 @@
+package com.example.factionslite;
+
+import com.example.factionslite.FactionsLite.Faction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** onDisable runs with the plugin already disabled, so it must save without scheduling anything. */
+class ShutdownTest {
+    private static final UUID OWNER = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    @TempDir File dir;
+
+    @Test
+    void upgradeBoughtInTheLastTickIsSaved() throws Exception {
+        Files.writeString(new File(dir, "data.yml").toPath(), String.join("\n",
+                "factions:",
+                "  Alpha:",
+                "    world: f_alpha",
+                "    owner: " + OWNER,
+                "    members:",
+                "    - " + OWNER,
+                "players:",
+                "  " + OWNER + ": Alpha",
+                ""));
+        FactionsLite plugin = TestServer.plugin(dir);
+        assertTrue(plugin.loadData());
+        Faction f = plugin.getPlayerFaction(TestServer.player(OWNER));
+        f.speedLevel = 1;
+        plugin.commitUpgradeLater(f); // the commit task is queued for the next tick, which never comes
+
+        TestServer.disabled = true;
+        plugin.onDisable();
+
+        var saved = new YamlStorage().load(new File(dir, "data.yml")).factions().iterator().next();
+        assertEquals(1, saved.speedLevel());
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.factionslite;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.IllegalPluginAccessException;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.java.JavaPluginLoader;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Minimal Bukkit server for tests: no worlds, no players, and a scheduler that queues nothing
+ * and, like Bukkit's, refuses new tasks once {@link #disabled} is set. Installed once per JVM.
+ */
+final class TestServer {
+    static volatile boolean disabled;
+    private static JavaPluginLoader loader;
+
+    private TestServer() {}
+
+    @SuppressWarnings("deprecation") // JavaPluginLoader(Server): the only way to build a plugin outside a server
+    static synchronized FactionsLite plugin(File dataFolder) {
+        if (loader == null) {
+            Server server = stub(Server.class, Map.of(
+                    "getLogger", Logger.getLogger("FactionsLite-test"),
+                    "getWorlds", List.of(),
+                    "getScheduler", stub(BukkitScheduler.class, Map.of())));
+            Bukkit.setServer(server);
+            loader = new JavaPluginLoader(server);
+        }
+        disabled = false;
+        FactionsLite plugin = new FactionsLite(loader, new PluginDescriptionFile("FactionsLite", "1.2.0", FactionsLite.class.getName()),
+                dataFolder, new File(dataFolder, "FactionsLite.jar"));
+        plugin.addConfigDefaults();
+        plugin.readSettings();
+        return plugin;
+    }
+
+    static Player player(UUID id) { return stub(Player.class, Map.of("getUniqueId", id)); }
+
+    private static <T> T stub(Class<T> type, Map<String, Object> answers) {
+        return type.cast(Proxy.newProxyInstance(TestServer.class.getClassLoader(), new Class<?>[]{type}, (self, m, args) -> {
+            if (type == BukkitScheduler.class && m.getName().startsWith("run")) {
+                if (disabled) throw new IllegalPluginAccessException("Plugin attempted to register task while disabled");
+                return m.getReturnType() == BukkitTask.class ? stub(BukkitTask.class, Map.of()) : null;
+            }
+            if (m.getName().equals("hashCode")) return System.identityHashCode(self);
+            if (m.getName().equals("equals")) return self == args[0];
+            Object v = answers.get(m.getName());
+            if (v != null) return v;
+            Class<?> t = m.getReturnType();
+            if (t == boolean.class) return false;
+            if (t == int.class) return 0;
+            if (t == long.class) return 0L;
+            if (t == double.class) return 0.0;
+            return null;
+        }));
+    }
+}